@@ -19,11 +19,29 @@
 
 package ove.crypto.digest;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.RandomAccessFile;
 import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
 import java.security.Key;
+import java.security.MessageDigest;
 import java.security.spec.AlgorithmParameterSpec; // JCE not supported / anticipated ..
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static ove.crypto.digest.Blake2b.Engine.Assert.*;
 import static ove.crypto.digest.Blake2b.Engine.LittleEndian.*;
@@ -89,7 +107,6 @@ public interface Blake2b {
 	// ---------------------------------------------------------------------
 	// API
 	// ---------------------------------------------------------------------
-	// TODO add ByteBuffer variants
 
 	/**
 	 * A serializable / JSON-izable object usable for pausing a hash-in-process
@@ -105,10 +122,10 @@ public interface Blake2b {
 		public   long[]  f = new long [ 2 ];
 		/** per spec (tree) */
 		public         boolean last_node 	= false;
-		/** pulled up 2b optimal */
-		public   long[]  m = new long [16];
-		/** pulled up 2b optimal */
-		public   long[]  v = new long [16];
+		/** @deprecated compressor scratch - not part of the state; ignored */
+		@Deprecated public   long[]  m;
+		/** @deprecated compressor scratch - not part of the state; ignored */
+		@Deprecated public   long[]  v;
 
 		/** compressor cache buffer */
 		public   byte[]  buffer;
@@ -130,18 +147,15 @@ public interface Blake2b {
 			assert this.buffer != null && this.buffer.length == Spec.block_bytes;
 			assert this.h != null && this.h.length == 8
 					&& this.t != null && this.t.length == 2
-					&& this.f != null && this.f.length == 2
-					&& this.m != null && this.m.length == 16
-					&& this.v != null && this.v.length == 16 : "Data is corrupted";
+					&& this.f != null && this.f.length == 2 : "Data is corrupted";
 			assert this.outlen == param.getDigestLength() : "Not originally initialized from this param";
 			assert this.type == 1 || this.type == 2 : "Unknown type " + this.type;
 			Engine.State state = new Engine.State(outlen, this.type == 1);
-			System.arraycopy(this.h, 0, state.h, 0, state.h.length);
-			System.arraycopy(this.t, 0, state.t, 0, state.t.length);
-			System.arraycopy(this.f, 0, state.f, 0, state.f.length);
-			System.arraycopy(this.m, 0, m, 0, m.length);
-			System.arraycopy(this.v, 0, v, 0, v.length);
+			System.arraycopy(this.h, 0, state.s, 0, 8);
+			System.arraycopy(this.t, 0, state.s, Engine.State.t0, 2);
+			System.arraycopy(this.f, 0, state.s, Engine.State.f0, 2);
 			System.arraycopy(this.buffer, 0, state.buffer, 0, state.buffer.length);
+			state.last_node = last_node;
 			state.buflen = buflen;
 			return type == 1 ?  new Mac(param, state) : new Digest(param, state);
 		}
@@ -156,6 +170,21 @@ public interface Blake2b {
 	/** */
 	void update (byte[] input, int offset, int len) ;
 
+	/**
+	 * update with the little-endian bytes of words[offset, offset + len).
+	 * While no input is buffered, whole blocks of words are fed to the
+	 * compression kernel as message words, with no byte encoding.
+	 */
+	void update (long[] words, int offset, int len) ;
+
+	/**
+	 * update with the remaining bytes of input; its position is advanced
+	 * to its limit (per MessageDigest). While no input is buffered, whole
+	 * blocks of a direct (or read only) buffer are fed to the compression
+	 * kernel from the buffer, with no copy to a byte[].
+	 */
+	void update (ByteBuffer input) ;
+
 	/** */
 	byte[] digest () ;
 
@@ -165,10 +194,42 @@ public interface Blake2b {
 	/** */
 	void digest (byte[] output, int offset, int len) ;
 
+	/**
+	 * put the digest to output, from its position, which is advanced by the
+	 * digest length.
+	 * @throws BufferOverflowException if output has less room than the digest length; the state is kept
+	 * @throws ReadOnlyBufferException if output is read only; the state is kept
+	 */
+	void digest (ByteBuffer output) ;
+
 	/** */
 	void reset () ;
 
+	/**
+	 * @return the first 64 bits (little-endian) of the digest, read from the
+	 * state vector without a byte[]; a digest length of less than 8 bytes is
+	 * zero filled.
+	 */
+	long digestToLong () ;
+
+	/**
+	 * writes the digest as (little-endian) words to out; a partial last word
+	 * (digest length not a multiple of 8) is zero filled.
+	 * @param out output - at least (digest length + 7) / 8 words
+	 */
+	void digestTo (long[] out) ;
+
+	/** @return the digest as a {@link Hash} value, read from the state vector */
+	Hash digestToHash () ;
+
 	ResumeHandle state();
+
+	/**
+	 * @return an independent engine in the same (in-process) state: e.g. hash
+	 * a common prefix once, then copy and feed each copy a different suffix.
+	 * Only the state vector and the buffered bytes are copied.
+	 */
+	Blake2b copy () ;
 	// ---------------------------------------------------------------------
 	// Blake2b Message Digest
 	// ---------------------------------------------------------------------
@@ -176,16 +237,18 @@ public interface Blake2b {
 	/** Generalized Blake2b digest. */
 	public static class Digest extends Engine implements Blake2b {
 		private Digest (final Param p) { super (p); }
+		private Digest (final Param p, final Kernel k) { super (p, k); }
 		private Digest () { super (); }
 		private Digest(Param p, State state) {
 			super(state, p);
 		}
+		private Digest (final Digest d) { super (d); }
 
 		public static Digest newInstance () {
 			return new Digest ();
 		}
 		public static Digest newInstance (final int digestLength) {
-			return new Digest (new Param().setDigestLength(digestLength));
+			return new Digest (Param.canonical(digestLength));
 		}
 		public static Digest newInstance (Param p) {
 			return new Digest (p);
@@ -193,6 +256,73 @@ public interface Blake2b {
 		public static Digest newInstance (Param p, State state) {
 			return new Digest(p, state);
 		}
+		/** Blake2b digest using the specified Parameters and compression kernel, e.g. {@link Kernel#compact()} */
+		public static Digest newInstance (Param p, Kernel kernel) {
+			return new Digest (p, kernel);
+		}
+
+		/** {@inheritDoc} */
+		@Override public Digest copy () {
+			return new Digest (this);
+		}
+
+		/**
+		 * Stateless hash of a short (single block) input: one final compress
+		 * straight from the input bytes, with no engine instance, buffering or
+		 * allocation (beyond the state vector). If p has a key, the output is
+		 * that of a Mac.
+		 * @param in input - len &lt;= Spec.block_bytes (128) bytes from off
+		 * @param out output - p.getDigestLength() bytes from outOff
+		 * @throws IllegalArgumentException if len &gt; Spec.block_bytes
+		 */
+		public static void hashShort (final byte[] in, final int off, final int len,
+				final byte[] out, final int outOff, final Param p) {
+			assert in != null : "in is null";
+			assert p != null : "param is null";
+			if ( len > Spec.block_bytes ) throw new IllegalArgumentException( "len " + len + " is more than a block" );
+			assert len >= 0 : assertFail("len", len, inclusiveLowerBound, 0);
+			assert off >= 0 && off + len <= in.length : "off/len out of bounds";
+			assert out != null && outOff >= 0 && outOff + p.getDigestLength() <= out.length : "out is null or short";
+
+			final long[] h = p.initialH().clone();
+			final long f1 = isLastNode( p ) ? -1L : 0L;
+			long t0 = len;
+			final byte[] key = p.getKeyBlock();
+			if ( key != null ) {
+				if ( len == 0 ) {
+					Kernel.active.compress( h, Spec.block_bytes, 0L, -1L, f1, key, 0 );
+					hashout( h, out, outOff, p.getDigestLength() );
+					return;
+				}
+				Kernel.active.compress( h, Spec.block_bytes, 0L, 0L, 0L, key, 0 );
+				t0 += Spec.block_bytes;
+			}
+			if ( len == Spec.block_bytes ) {
+				Kernel.active.compress( h, t0, 0L, -1L, f1, in, off );
+			} else {
+				compress( h, t0, 0L, -1L, f1,
+						word( in, off, len, 0 ),  word( in, off, len, 1 ),
+						word( in, off, len, 2 ),  word( in, off, len, 3 ),
+						word( in, off, len, 4 ),  word( in, off, len, 5 ),
+						word( in, off, len, 6 ),  word( in, off, len, 7 ),
+						word( in, off, len, 8 ),  word( in, off, len, 9 ),
+						word( in, off, len, 10 ), word( in, off, len, 11 ),
+						word( in, off, len, 12 ), word( in, off, len, 13 ),
+						word( in, off, len, 14 ), word( in, off, len, 15 ));
+			}
+			hashout( h, out, outOff, p.getDigestLength() );
+		}
+
+		/** @return little-endian word i of the len bytes of b from off, zero padded */
+		private static long word (final byte[] b, final int off, final int len, final int i) {
+			final int start = i << 3;
+			if ( start + 8 <= len ) return readLong( b, off + start );
+			long w = 0L;
+			for (int k = len - 1; k >= start; k--) {
+				w = (w << 8) | (b[ off + k ] & 0xFFL);
+			}
+			return w;
+		}
 	}
 
 	// ---------------------------------------------------------------------
@@ -203,7 +333,9 @@ public interface Blake2b {
 	public static class Mac extends Engine implements Blake2b {
 		private Mac (final Param p, State state) { super (state, p); }
 		private Mac (final Param p) { super (p); }
+		private Mac (final Param p, final Kernel k) { super (p, k); }
 		private Mac () { super (); }
+		private Mac (final Mac m) { super (m); }
 
 		/** Blake2b.MAC 512 - using default Blake2b.Spec settings with given key */
 		public static Mac newInstance (final byte[] key) {
@@ -224,87 +356,1867 @@ public interface Blake2b {
 			assert p.hasKey() : "Param (p) not configured with a key";
 			return new Mac (p);
 		}
-	}
+		/** Blake2b.MAC - using the specified Parameters and compression kernel.
+		 * @param p asserted valid configured Param with key */
+		public static Mac newInstance (Param p, Kernel kernel) {
+			assert p != null : "Param (p) is null";
+			assert p.hasKey() : "Param (p) not configured with a key";
+			return new Mac (p, kernel);
+		}
+
+		/** {@inheritDoc} */
+		@Override public Mac copy () {
+			return new Mac (this);
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Blake2b digest value
+	// ---------------------------------------------------------------------
+
+	/**
+	 * An immutable digest value, e.g. for hash map keys and sorted sets,
+	 * held as its (little-endian) words, as read from the state vector. A
+	 * partial last word (digest length not a multiple of 8) is zero filled.
+	 * <br>
+	 * equals is constant time (for a given length); compareTo is the
+	 * (unsigned) lexicographic order of the digest bytes.
+	 */
+	public static final class Hash implements Comparable<Hash> {
+		private final long[] words;
+		/** digest length in bytes */
+		private final int length;
+
+		private Hash (final long[] words, final int length) {
+			this.words = words;
+			this.length = length;
+		}
+
+		/** @return Hash of digest bytes b - 1 to 64 bytes */
+		public static Hash of (final byte[] b) {
+			assert b != null : "b is null";
+			assert b.length > 0 && b.length <= Spec.max_digest_bytes : assertFail("b.length", b.length, inclusiveUpperBound, Spec.max_digest_bytes);
+			final long[] words = new long [ (b.length + 7) >>> 3 ];
+			for (int i = 0; i < b.length; i++) {
+				words[ i >>> 3 ] |= (b[i] & 0xFFL) << ((i & 7) << 3);
+			}
+			return new Hash( words, b.length );
+		}
+
+		/** @return Hash of the first length bytes of (little-endian) words h, e.g. a state vector */
+		static Hash of (final long[] h, final int length) {
+			final long[] words = Arrays.copyOf( h, (length + 7) >>> 3 );
+			if ( (length & 7) != 0 ) {
+				words[ words.length - 1 ] &= (1L << ((length & 7) << 3)) - 1;
+			}
+			return new Hash( words, length );
+		}
+
+		/** @return digest length in bytes */
+		public int length () {
+			return length;
+		}
+
+		/** @return (little-endian) word i of the digest */
+		public long getLong (final int i) {
+			return words[ i ];
+		}
+
+		/** @return digest bytes */
+		public byte[] toBytes () {
+			final byte[] b = new byte [ length ];
+			Engine.hashout( words, b, 0, length );
+			return b;
+		}
+
+		/** writes the digest bytes to buf, from its position (which is advanced by length()) */
+		public void writeTo (final ByteBuffer buf) {
+			assert buf != null : "buf is null";
+			Engine.hashout( words, buf, length );
+		}
+
+		/** constant time (for equal lengths) comparison */
+		@Override public boolean equals (final Object o) {
+			if ( !(o instanceof Hash) ) return false;
+			final Hash that = (Hash) o;
+			if ( this.length != that.length ) return false;
+			long diff = 0L;
+			for (int i = 0; i < words.length; i++) {
+				diff |= this.words[ i ] ^ that.words[ i ];
+			}
+			return diff == 0L;
+		}
+
+		/** digest bits are uniformly distributed: the low 32 bits will do */
+		@Override public int hashCode () {
+			return (int) words[ 0 ];
+		}
+
+		/** unsigned lexicographic order of the digest bytes; a prefix orders first */
+		@Override public int compareTo (final Hash that) {
+			final int n = Math.min( this.words.length, that.words.length );
+			for (int i = 0; i < n; i++) {
+				if ( this.words[ i ] != that.words[ i ] ) {
+					// first differing byte is the lowest: compare byte reversed words (unsigned)
+					final long a = Long.reverseBytes( this.words[ i ] ) ^ Long.MIN_VALUE;
+					final long b = Long.reverseBytes( that.words[ i ] ) ^ Long.MIN_VALUE;
+					return a < b ? -1 : 1;
+				}
+			}
+			return this.length < that.length ? -1 : this.length == that.length ? 0 : 1;
+		}
+
+		/** @return digest bytes in hex */
+		@Override public String toString () {
+			return Encoding.hex.encode( toBytes() );
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Blake2b digest text encodings
+	// ---------------------------------------------------------------------
+
+	/**
+	 * Table driven text encodings of digests (e.g. content addresses): hex,
+	 * base32 (RFC 4648 alphabet, lower case) and URL safe base64 (RFC 4648),
+	 * all without padding. Encoders write to a caller's byte[] (ASCII),
+	 * char[], ByteBuffer or StringBuilder, and decoders parse to byte[] or
+	 * (little-endian) long[] words, with no intermediate allocation.
+	 * <br>
+	 * Decoding of hex and base32 is case insensitive. Invalid input, or a
+	 * trailing partial symbol with non-zero bits, is an IllegalArgumentException.
+	 */
+	public static final class Encoding {
+		/** lower case hex */
+		public static final Encoding hex = new Encoding( "0123456789abcdef", 4, true );
+		/** lower case RFC 4648 base32, unpadded */
+		public static final Encoding base32 = new Encoding( "abcdefghijklmnopqrstuvwxyz234567", 5, true );
+		/** RFC 4648 URL safe base64, unpadded */
+		public static final Encoding base64url = new Encoding( "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_", 6, false );
+
+		/** bits per symbol */
+		private final int bits;
+		private final int mask;
+		private final char[] chars;
+		private final byte[] bytes;
+		/** symbol value of ASCII char, or -1 */
+		private final byte[] values = new byte [ 128 ];
+
+		private Encoding (final String alphabet, final int bits, final boolean caseless) {
+			this.bits = bits;
+			this.mask = (1 << bits) - 1;
+			this.chars = alphabet.toCharArray();
+			this.bytes = new byte [ chars.length ];
+			Arrays.fill( values, (byte) -1 );
+			for (int v = 0; v < chars.length; v++) {
+				bytes[ v ] = (byte) chars[ v ];
+				values[ chars[ v ] ] = (byte) v;
+				if ( caseless ) values[ Character.toUpperCase( chars[ v ] ) ] = (byte) v;
+			}
+		}
+
+		/** @return number of symbols encoding len bytes */
+		public int encodedLength (final int len) {
+			return (int) (((long) len * 8 + bits - 1) / bits);
+		}
+
+		/** @return number of bytes decoded from n symbols */
+		public int decodedLength (final int n) {
+			return (int) ((long) n * bits / 8);
+		}
+
+		/** @return symbol value k of the (big-endian) bit string in[off, off + len) */
+		private int symbol (final byte[] in, final int off, final int len, final int k) {
+			final int bit = k * bits;
+			final int i = bit >>> 3;
+			final int w = (in[ off + i ] & 0xFF) << 8 | (i + 1 < len ? in[ off + i + 1 ] & 0xFF : 0);
+			return (w >>> (16 - bits - (bit & 7))) & mask;
+		}
+
+		/** writes the encoding of in[off, off + len) to out (ASCII), from outOff; @return number of symbols */
+		public int encode (final byte[] in, final int off, final int len, final byte[] out, final int outOff) {
+			final int n = encodedLength( len );
+			for (int k = 0; k < n; k++) {
+				out[ outOff + k ] = bytes[ symbol( in, off, len, k ) ];
+			}
+			return n;
+		}
+
+		/** writes the encoding of in[off, off + len) to out, from outOff; @return number of symbols */
+		public int encode (final byte[] in, final int off, final int len, final char[] out, final int outOff) {
+			final int n = encodedLength( len );
+			for (int k = 0; k < n; k++) {
+				out[ outOff + k ] = chars[ symbol( in, off, len, k ) ];
+			}
+			return n;
+		}
+
+		/** puts the encoding of in[off, off + len) (ASCII) to out, from (and advancing) its position */
+		public void encode (final byte[] in, final int off, final int len, final ByteBuffer out) {
+			final int n = encodedLength( len );
+			if ( out.hasArray() ) {
+				final int pos = out.position();
+				if ( n > out.remaining() ) throw new BufferOverflowException();
+				encode( in, off, len, out.array(), out.arrayOffset() + pos );
+				out.position( pos + n );
+				return;
+			}
+			for (int k = 0; k < n; k++) {
+				out.put( bytes[ symbol( in, off, len, k ) ] );
+			}
+		}
+
+		/** appends the encoding of in[off, off + len) to sb; @return sb */
+		public StringBuilder encode (final byte[] in, final int off, final int len, final StringBuilder sb) {
+			final int n = encodedLength( len );
+			sb.ensureCapacity( sb.length() + n );
+			for (int k = 0; k < n; k++) {
+				sb.append( chars[ symbol( in, off, len, k ) ] );
+			}
+			return sb;
+		}
+
+		/** @return encoding of b */
+		public String encode (final byte[] b) {
+			final char[] out = new char [ encodedLength( b.length ) ];
+			encode( b, 0, b.length, out, 0 );
+			return new String( out );
+		}
+
+		/** @return bytes decoded from s */
+		public byte[] decode (final CharSequence s) {
+			final byte[] out = new byte [ decodedLength( s.length() ) ];
+			decode( s, 0, s.length(), out, 0, null );
+			return out;
+		}
+
+		/** writes the bytes decoded from s[off, off + len) to out, from outOff; @return number of bytes */
+		public int decode (final CharSequence s, final int off, final int len, final byte[] out, final int outOff) {
+			return decode( s, off, len, out, outOff, null );
+		}
+
+		/**
+		 * writes the bytes decoded from s as little-endian words to out; a
+		 * partial last word is zero filled. @return number of bytes
+		 */
+		public int decode (final CharSequence s, final long[] out) {
+			final int n = decodedLength( s.length() );
+			Arrays.fill( out, 0, (n + 7) >>> 3, 0L );
+			return decode( s, 0, s.length(), null, 0, out );
+		}
+
+		/** decode to out (from outOff), or else to words */
+		private int decode (final CharSequence s, final int off, final int len, final byte[] out, final int outOff, final long[] words) {
+			int acc = 0;
+			int nbits = 0;
+			int n = 0;
+			for (int i = off; i < off + len; i++) {
+				final char c = s.charAt( i );
+				final int v = c < 128 ? values[ c ] : -1;
+				if ( v < 0 ) throw new IllegalArgumentException( "invalid symbol '" + c + "' at " + i );
+				acc = (acc << bits) | v;
+				nbits += bits;
+				if ( nbits >= 8 ) {
+					nbits -= 8;
+					final int b = (acc >>> nbits) & 0xFF;
+					if ( out != null ) {
+						out[ outOff + n ] = (byte) b;
+					} else {
+						words[ n >>> 3 ] |= (long) b << ((n & 7) << 3);
+					}
+					n++;
+					acc &= (1 << nbits) - 1;
+				}
+			}
+			if ( nbits >= bits || acc != 0 ) throw new IllegalArgumentException( "invalid length or trailing bits" );
+			return n;
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Blake2b Batch (multi-buffer) hashing
+	// ---------------------------------------------------------------------
+
+	/**
+	 * Hashes a batch of independent messages with the same Param. Output is
+	 * identical to that of a Digest (or Mac) of each input.
+	 * <br>
+	 * On Java 16+ with jdk.incubator.vector present, the multi-release jar
+	 * provides a lane parallel implementation (VectorBatch) that carries 4 or 8
+	 * message states in vector lanes per compress; lanes whose message is done
+	 * are masked. Otherwise inputs are hashed one at a time.
+	 */
+	public static final class Batch {
+		private Batch () {}
+
+		/** batch implementation selection system property: vector or sequential */
+		static final String property = "ove.crypto.digest.blake2b.batch";
+
+		/** hash implementation; see Batch */
+		static abstract class Impl {
+			/** hash inputs [from, to) to outs */
+			abstract void hash (byte[][] inputs, int from, int to, Param p, byte[][] outs);
+
+			/** hash a and b to outA and outB - one after the other (see performance.md) */
+			void hash2 (final byte[] a, final byte[] b, final Param p, final byte[] outA, final byte[] outB) {
+				final Blake2b digest = p.hasKey() ? Mac.newInstance(p) : Digest.newInstance(p);
+				final int outlen = p.getDigestLength();
+				digest.update( a );
+				digest.digest( outA, 0, outlen );
+				digest.update( b );
+				digest.digest( outB, 0, outlen );
+			}
+		}
+
+		static final Impl impl = newImpl();
+
+		private static Impl newImpl () {
+			final String forced = System.getProperty(property, "");
+			if ( forced.equalsIgnoreCase("sequential") ) return new Sequential();
+			if ( !"scalar".equalsIgnoreCase(System.getProperty(Kernel.property)) ) {
+				try {
+					return (Impl) Class.forName("ove.crypto.digest.VectorBatch").newInstance();
+				} catch (Throwable e) { /* not supported on this runtime */ }
+			}
+			return new Sequential();
+		}
+
+		/**
+		 * Hash each input to the corresponding outs element.
+		 * @param inputs messages - asserted non-null
+		 * @param p digest (or MAC, if keyed) configuration for all inputs
+		 * @param outs output digests. null elements are allocated; others must
+		 * have room for p.getDigestLength() bytes.
+		 */
+		public static void hash (final byte[][] inputs, final Param p, final byte[][] outs) {
+			assert inputs != null : "inputs is null";
+			assert p != null : "param is null";
+			assert outs != null && outs.length >= inputs.length : "outs is null or shorter than inputs";
+
+			final int outlen = p.getDigestLength();
+			for (int i = 0; i < inputs.length; i++) {
+				if ( outs[i] == null ) outs[i] = new byte [ outlen ];
+			}
+			impl.hash( inputs, 0, inputs.length, p, outs );
+		}
+
+		/**
+		 * Hash two inputs: in two vector lanes with VectorBatch, or else one
+		 * after the other. Output is identical to that of a Digest (or Mac) of
+		 * each input.
+		 * @param p digest (or MAC, if keyed) configuration for both inputs
+		 * @param outA output digest of a - must have room for p.getDigestLength() bytes
+		 * @param outB output digest of b - must have room for p.getDigestLength() bytes
+		 */
+		public static void hash2 (final byte[] a, final byte[] b, final Param p, final byte[] outA, final byte[] outB) {
+			assert a != null && b != null : "input is null";
+			assert p != null : "param is null";
+			assert outA != null && outA.length >= p.getDigestLength() : "outA is null or short";
+			assert outB != null && outB.length >= p.getDigestLength() : "outB is null or short";
+			impl.hash2( a, b, p, outA, outB );
+		}
+
+		/** one at a time */
+		static final class Sequential extends Impl {
+			@Override final void hash (final byte[][] inputs, final int from, final int to, final Param p, final byte[][] outs) {
+				final Blake2b digest = p.hasKey() ? Mac.newInstance(p) : Digest.newInstance(p);
+				final int outlen = p.getDigestLength();
+				for (int i = from; i < to; i++) {
+					digest.update( inputs[i] );
+					digest.digest( outs[i], 0, outlen );
+				}
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Blake2b typed input
+	// ---------------------------------------------------------------------
+
+	/**
+	 * Typed input to a Digest (or Mac): primitives are written (little-endian)
+	 * and strings UTF-8 encoded, directly into the engine's block buffer,
+	 * without serializing a record to a byte[] first. The bytes hashed are
+	 * exactly those of the equivalent byte[] encoding, e.g. putUtf8(s) hashes
+	 * as update(s.getBytes("UTF-8")) (an unpaired surrogate is hashed as '?').
+	 * <br>
+	 * A Hasher and its engine are one stream: the engine may also be used
+	 * directly. Not thread-safe.
+	 */
+	public static final class Hasher {
+		private final Engine engine;
+
+		private Hasher (final Engine engine) {
+			this.engine = engine;
+		}
+
+		/** @return Hasher of a new Digest, with default params */
+		public static Hasher newInstance () {
+			return new Hasher( Digest.newInstance() );
+		}
+		/** @return Hasher of a new Digest, or Mac if p has a key */
+		public static Hasher newInstance (final Param p) {
+			assert p != null : "param is null";
+			return new Hasher( p.hasKey() ? Mac.newInstance( p ) : Digest.newInstance( p ) );
+		}
+		/** @return Hasher of engine, a Digest or Mac */
+		public static Hasher of (final Blake2b engine) {
+			assert engine instanceof Engine : "engine is not a Digest or Mac";
+			return new Hasher( (Engine) engine );
+		}
+
+		/** @return the engine */
+		public Blake2b engine () {
+			return engine;
+		}
+
+		public Hasher putByte (final byte b) {
+			engine.update( b );
+			return this;
+		}
+		/** little-endian */
+		public Hasher putInt (final int v) {
+			final Engine.State state = engine.state;
+			if ( state.buflen > Spec.block_bytes - 4 ) return putSlow( v, 4 );
+			writeInt( v, state.buffer, state.buflen );
+			state.buflen += 4;
+			return this;
+		}
+		/** little-endian */
+		public Hasher putLong (final long v) {
+			final Engine.State state = engine.state;
+			if ( state.buflen > Spec.block_bytes - 8 ) return putSlow( v, 8 );
+			writeLong( v, state.buffer, state.buflen );
+			state.buflen += 8;
+			return this;
+		}
+		/** little-endian raw (IEEE 754) bits */
+		public Hasher putDouble (final double v) {
+			return putLong( Double.doubleToRawLongBits( v ) );
+		}
+		/** little-endian words[off, off + len) */
+		public Hasher putLongs (final long[] words, final int off, final int len) {
+			engine.update( words, off, len );
+			return this;
+		}
+		/** remaining bytes of b; its position is advanced to its limit */
+		public Hasher putBytes (final ByteBuffer b) {
+			engine.update( b );
+			return this;
+		}
+		public Hasher putBytes (final byte[] b) {
+			engine.update( b, 0, b.length );
+			return this;
+		}
+		public Hasher putBytes (final byte[] b, final int off, final int len) {
+			engine.update( b, off, len );
+			return this;
+		}
+		/** UTF-8 bytes of s (no length prefix) */
+		public Hasher putUtf8 (final CharSequence s) {
+			final Engine.State state = engine.state;
+			final byte[] buffer = state.buffer;
+			final int n = s.length();
+			int buflen = state.buflen;
+			int i = 0;
+			while ( i < n ) {
+				final char c = s.charAt( i );
+				if ( c < 0x80 && buflen < Spec.block_bytes ) {
+					buffer[ buflen++ ] = (byte) c;
+					i++;
+					continue;
+				}
+				state.buflen = buflen;
+				i = putCodePoint( s, i, n );
+				buflen = state.buflen;
+			}
+			state.buflen = buflen;
+			return this;
+		}
+
+		/** value bytes across a block boundary */
+		private Hasher putSlow (long v, final int bytes) {
+			for (int i = 0; i < bytes; i++) {
+				engine.update( (byte) v );
+				v >>>= 8;
+			}
+			return this;
+		}
+
+		/** UTF-8 encode the char (or surrogate pair) at s[i]; @return index of the next char */
+		private int putCodePoint (final CharSequence s, final int i, final int n) {
+			final char c = s.charAt( i );
+			if ( c < 0x80 ) {
+				engine.update( (byte) c );
+			} else if ( c < 0x800 ) {
+				engine.update( (byte) (0xC0 | c >>> 6) );
+				engine.update( (byte) (0x80 | c & 0x3F) );
+			} else if ( c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE ) {
+				engine.update( (byte) (0xE0 | c >>> 12) );
+				engine.update( (byte) (0x80 | c >>> 6 & 0x3F) );
+				engine.update( (byte) (0x80 | c & 0x3F) );
+			} else if ( Character.isHighSurrogate( c ) && i + 1 < n && Character.isLowSurrogate( s.charAt( i + 1 ) ) ) {
+				final int cp = Character.toCodePoint( c, s.charAt( i + 1 ) );
+				engine.update( (byte) (0xF0 | cp >>> 18) );
+				engine.update( (byte) (0x80 | cp >>> 12 & 0x3F) );
+				engine.update( (byte) (0x80 | cp >>> 6 & 0x3F) );
+				engine.update( (byte) (0x80 | cp & 0x3F) );
+				return i + 2;
+			} else {
+				engine.update( (byte) '?' );
+			}
+			return i + 1;
+		}
+
+		/** @see Blake2b#digest() */
+		public byte[] digest () {
+			return engine.digest();
+		}
+		/** @see Blake2b#digest(byte[], int, int) */
+		public void digest (final byte[] out, final int off, final int len) {
+			engine.digest( out, off, len );
+		}
+		/** @see Blake2b#digestToLong() */
+		public long digestToLong () {
+			return engine.digestToLong();
+		}
+		/** @see Blake2b#digestTo(long[]) */
+		public void digestTo (final long[] out) {
+			engine.digestTo( out );
+		}
+		/** @see Blake2b#digestToHash() */
+		public Hash digestToHash () {
+			return engine.digestToHash();
+		}
+		/** @see Blake2b#reset() */
+		public void reset () {
+			engine.reset();
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Blake2b immutable hash function
+	// ---------------------------------------------------------------------
+
+	/**
+	 * An immutable hash function of a Param, shareable by any number of
+	 * threads: the initial state vector (for a keyed Param, the state after
+	 * the key block) is computed once, and each hash call runs on a per
+	 * thread scratch state vector. A call does not allocate beyond its
+	 * output (if any), and calls do not contend.
+	 * <br>
+	 * Output is identical to that of a Digest (or Mac) of the Param.
+	 */
+	public static final class Function {
+		/** initial state vector, or state after the key block */
+		private final long[] h0;
+		/** byte count of h0: 0, or block_bytes if keyed */
+		private final long t0;
+		/** keyed: initial state vector and key block, for the empty message */
+		private final long[] h_key;
+		private final byte[] key;
+		private final long f1;
+		private final int outlen;
+		private final Kernel kernel;
+
+		/** per thread state vector */
+		private static final ThreadLocal<long[]> scratch = new ThreadLocal<long[]>() {
+			@Override protected long[] initialValue () {
+				return new long [ Spec.state_space_len ];
+			}
+		};
+
+		private Function (final Param p, final Kernel kernel) {
+			this.kernel = kernel;
+			this.outlen = p.getDigestLength();
+			this.f1 = Engine.isLastNode( p ) ? -1L : 0L;
+			this.h_key = p.initialH().clone();
+			if ( p.hasKey() ) {
+				this.key = p.getKeyBlock().clone();
+				this.h0 = h_key.clone();
+				kernel.compress( h0, Spec.block_bytes, 0L, 0L, 0L, key, 0 );
+				this.t0 = Spec.block_bytes;
+			} else {
+				this.key = null;
+				this.h0 = h_key;
+				this.t0 = 0L;
+			}
+		}
+
+		/** @return hash function of (a snapshot of) p; keyed if p has a key */
+		public static Function of (final Param p) {
+			return of( p, Kernel.active );
+		}
+		/** @return hash function of (a snapshot of) p, using kernel, e.g. {@link Kernel#compact()} */
+		public static Function of (final Param p, final Kernel kernel) {
+			assert p != null : "param is null";
+			assert kernel != null : "kernel is null";
+			return new Function( p, kernel );
+		}
+
+		/** @return digest length in bytes */
+		public int digestLength () {
+			return outlen;
+		}
+
+		/** @return hash of in */
+		public byte[] hash (final byte[] in) {
+			return hash( in, 0, in.length );
+		}
+
+		/** @return hash of in[off, off + len) */
+		public byte[] hash (final byte[] in, final int off, final int len) {
+			final byte[] out = new byte [ outlen ];
+			hash( in, off, len, out, 0 );
+			return out;
+		}
+
+		/**
+		 * writes the hash of in[off, off + len) to out, from outOff
+		 * @param out output - digestLength() bytes from outOff
+		 */
+		public void hash (final byte[] in, final int off, final int len, final byte[] out, final int outOff) {
+			assert out != null && outOff >= 0 && outOff + outlen <= out.length : "out is null or short";
+			Engine.hashout( compute( in, off, len ), out, outOff, outlen );
+		}
+
+		/**
+		 * @return the first 64 bits (little-endian) of the hash of in[off, off + len),
+		 * with no byte[] output. (For a 64 bit hash, use a digest length of 8.)
+		 */
+		public long hash64 (final byte[] in, final int off, final int len) {
+			assert outlen >= 8 : assertFail("digest length", outlen, inclusiveLowerBound, 8);
+			return compute( in, off, len )[ 0 ];
+		}
+
+		/**
+		 * writes the first 128 bits (2 little-endian words) of the hash of
+		 * in[off, off + len) to out[0] and out[1]. (For a 128 bit hash, use a
+		 * digest length of 16.)
+		 */
+		public void hash128 (final byte[] in, final int off, final int len, final long[] out) {
+			assert outlen >= 16 : assertFail("digest length", outlen, inclusiveLowerBound, 16);
+			assert out != null && out.length >= 2 : "out is null or short";
+			final long[] h = compute( in, off, len );
+			out[ 0 ] = h[ 0 ];
+			out[ 1 ] = h[ 1 ];
+		}
+
+		/** @return (per thread scratch) state vector h after hashing in[off, off + len) */
+		private long[] compute (final byte[] in, int off, int len) {
+			assert in != null : "in is null";
+			assert off >= 0 && len >= 0 && off + len <= in.length : "off/len out of bounds";
+
+			final long[] h = scratch.get();
+			if ( key != null && len == 0 ) {
+				// empty message: the key block is the final block
+				System.arraycopy( h_key, 0, h, 0, Spec.state_space_len );
+				kernel.compress( h, Spec.block_bytes, 0L, -1L, f1, key, 0 );
+				return h;
+			}
+			System.arraycopy( h0, 0, h, 0, Spec.state_space_len );
+			long t = t0;
+			/* all but the last (possibly partial) block, direct from input */
+			while ( len > Spec.block_bytes ) {
+				t += Spec.block_bytes;
+				kernel.compress( h, t, 0L, 0L, 0L, in, off );
+				off += Spec.block_bytes;
+				len -= Spec.block_bytes;
+			}
+			t += len;
+			if ( len == Spec.block_bytes ) {
+				kernel.compress( h, t, 0L, -1L, f1, in, off );
+			} else {
+				Engine.compress( h, t, 0L, -1L, f1,
+						Digest.word( in, off, len, 0 ),  Digest.word( in, off, len, 1 ),
+						Digest.word( in, off, len, 2 ),  Digest.word( in, off, len, 3 ),
+						Digest.word( in, off, len, 4 ),  Digest.word( in, off, len, 5 ),
+						Digest.word( in, off, len, 6 ),  Digest.word( in, off, len, 7 ),
+						Digest.word( in, off, len, 8 ),  Digest.word( in, off, len, 9 ),
+						Digest.word( in, off, len, 10 ), Digest.word( in, off, len, 11 ),
+						Digest.word( in, off, len, 12 ), Digest.word( in, off, len, 13 ),
+						Digest.word( in, off, len, 14 ), Digest.word( in, off, len, 15 ));
+			}
+			return h;
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Blake2b fixed width word hashing
+	// ---------------------------------------------------------------------
+
+	/**
+	 * Single block hashing of (little-endian) 64 bit words to words, e.g.
+	 * Merkle tree inner nodes (combine) and hash chains (iterate). Message
+	 * words are fed directly to the compression kernel: there is no byte
+	 * encoding, buffering or engine state.
+	 * <br>
+	 * Output is identical to that of a Digest (or Mac) of the little-endian
+	 * bytes of the input words, written as little-endian words; a partial
+	 * last output word (digest length not a multiple of 8) is zero filled.
+	 */
+	public static final class Words {
+		private Words () {}
+
+		/** param block word 0, less the digest length: fanout 1, depth 1 */
+		private static final long param_word0 = 0x01010000L;
+
+		/**
+		 * Hash of the concatenation of left and right, with default params and a
+		 * digest length of out.length words.
+		 * @param left message words - left.length + right.length &lt;= 16
+		 * @param right message words
+		 * @param out digest - 1 to 8 words
+		 * @throws IllegalArgumentException if left and right are more than 16 words
+		 */
+		public static void combine (final long[] left, final long[] right, final long[] out) {
+			assert out != null && out.length > 0 && out.length <= 8 : "out is null or not 1 to 8 words";
+			final long[] h = new long [ Spec.state_space_len ];
+			init( h, out.length << 3 );
+			compress( h, null, 0L, left, right );
+			output( h, out.length << 3, out );
+		}
+
+		/**
+		 * Hash of the concatenation of left and right, per param.
+		 * @param out digest - (p.getDigestLength() + 7) / 8 words
+		 */
+		public static void combine (final long[] left, final long[] right, final Param p, final long[] out) {
+			assert p != null : "param is null";
+			assert out != null && out.length >= (p.getDigestLength() + 7) >>> 3 : "out is null or short";
+			final long[] h = new long [ Spec.state_space_len ];
+			System.arraycopy( p.initialH(), 0, h, 0, Spec.state_space_len );
+			compress( h, p.getKeyBlock(), Engine.isLastNode( p ) ? -1L : 0L, left, right );
+			output( h, p.getDigestLength(), out );
+		}
+
+		/**
+		 * Hash chain of n links: out = H(H(..H(seed))), with default params and a
+		 * digest length of out.length words. n of 0 copies seed to out.
+		 * @param seed message words of the first link - 0 to 16 words
+		 * @param out digest - 1 to 8 words
+		 * @throws IllegalArgumentException if seed is more than 16 words
+		 */
+		public static void iterate (final long[] seed, final int n, final long[] out) {
+			assert out != null && out.length > 0 && out.length <= 8 : "out is null or not 1 to 8 words";
+			final long[] init = new long [ Spec.state_space_len ];
+			init( init, out.length << 3 );
+			iterate( init, null, 0L, out.length << 3, seed, n, out );
+		}
+
+		/**
+		 * Hash chain of n links: out = H(H(..H(seed))), per param. n of 0 copies
+		 * seed to out.
+		 * @param out digest - (p.getDigestLength() + 7) / 8 words
+		 */
+		public static void iterate (final long[] seed, final int n, final Param p, final long[] out) {
+			assert p != null : "param is null";
+			assert out != null && out.length >= (p.getDigestLength() + 7) >>> 3 : "out is null or short";
+			iterate( p.initialH(), p.getKeyBlock(), Engine.isLastNode( p ) ? -1L : 0L,
+					p.getDigestLength(), seed, n, out );
+		}
+
+		private static void iterate (final long[] init, final byte[] key, final long f1,
+				final int outlen, final long[] seed, final int n, final long[] out) {
+			assert seed != null : "seed is null";
+			if ( seed.length > 16 ) throw new IllegalArgumentException( "seed longer than 16 words" );
+			assert n >= 0 : "n is negative";
+			final int words = (outlen + 7) >>> 3;
+			if ( n == 0 ) {
+				Arrays.fill( out, 0, words, 0L );
+				System.arraycopy( seed, 0, out, 0, Math.min( seed.length, words ) );
+				return;
+			}
+			final long[] h = new long [ Spec.state_space_len ];
+			System.arraycopy( init, 0, h, 0, Spec.state_space_len );
+			compress( h, key, f1, seed, none );
+			output( h, outlen, out );
+			// links 2..n hash outlen bytes of the previous link
+			final long[] link = new long [ words ];
+			for (int i = 1; i < n; i++) {
+				System.arraycopy( out, 0, link, 0, words );
+				System.arraycopy( init, 0, h, 0, Spec.state_space_len );
+				compress( h, key, f1, link, none, outlen );
+				output( h, outlen, out );
+			}
+		}
+
+		private static final long[] none = new long [ 0 ];
+
+		/** h = the initial state for default params, with the given digest length */
+		private static void init (final long[] h, final int outlen) {
+			System.arraycopy( Spec.IV, 0, h, 0, Spec.state_space_len );
+			h[ 0 ] ^= param_word0 | outlen;
+		}
+
+		private static void compress (final long[] h, final byte[] key, final long f1, final long[] a, final long[] b) {
+			assert a != null && b != null : "message words are null";
+			compress( h, key, f1, a, b, (a.length + b.length) << 3 );
+		}
+
+		/** compress the (key block and the) final block of words a|b, of len bytes, into h */
+		private static void compress (final long[] h, final byte[] key, final long f1,
+				final long[] a, final long[] b, final int len) {
+			if ( a.length + b.length > 16 ) throw new IllegalArgumentException( "message longer than 16 words" );
+			long t0 = len;
+			if ( key != null ) {
+				if ( len == 0 ) {
+					Kernel.active.compress( h, Spec.block_bytes, 0L, -1L, f1, key, 0 );
+					return;
+				}
+				Kernel.active.compress( h, Spec.block_bytes, 0L, 0L, 0L, key, 0 );
+				t0 += Spec.block_bytes;
+			}
+			Engine.compress( h, t0, 0L, -1L, f1,
+					word( a, b, 0 ),  word( a, b, 1 ),  word( a, b, 2 ),  word( a, b, 3 ),
+					word( a, b, 4 ),  word( a, b, 5 ),  word( a, b, 6 ),  word( a, b, 7 ),
+					word( a, b, 8 ),  word( a, b, 9 ),  word( a, b, 10 ), word( a, b, 11 ),
+					word( a, b, 12 ), word( a, b, 13 ), word( a, b, 14 ), word( a, b, 15 ));
+		}
+
+		/** @return word i of a|b, zero padded */
+		private static long word (final long[] a, final long[] b, final int i) {
+			if ( i < a.length ) return a[ i ];
+			final int j = i - a.length;
+			return j < b.length ? b[ j ] : 0L;
+		}
+
+		/** write outlen bytes of h to out, as words */
+		private static void output (final long[] h, final int outlen, final long[] out) {
+			final int words = outlen >>> 3;
+			System.arraycopy( h, 0, out, 0, words );
+			final int rem = outlen & 7;
+			if ( rem != 0 ) {
+				out[ words ] = h[ words ] & ((1L << (rem << 3)) - 1);
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Blake2b Multi-state hashing
+	// ---------------------------------------------------------------------
+
+	/**
+	 * Hashes one message under N Params (e.g. one MAC per key, or digests of
+	 * different lengths and personalization) in a single pass: each message
+	 * block is decoded once and compressed into all N states. digest() returns
+	 * the N digests, in Param order, each identical to that of a Digest (or
+	 * Mac, if keyed) of the message.
+	 * <br>
+	 * Not thread-safe.
+	 */
+	public static final class Multi {
+		private final Param[] params;
+		/** state vector per param */
+		private final long[][] h;
+		/** per param: its key block is yet to be compressed */
+		private final boolean[] keyPending;
+		/** per param: last node flag (f1) */
+		private final long[] f1;
+		/** message byte counter */
+		private long t0;
+		private long t1;
+		/** message block cache */
+		private final byte[] buffer = new byte [ Spec.block_bytes ];
+		private int buflen;
+
+		private Multi (final Param[] params) {
+			assert params != null && params.length > 0 : "params is null or empty";
+			this.params = params.clone();
+			final int n = params.length;
+			this.h = new long [ n ][ Spec.state_space_len ];
+			this.keyPending = new boolean [ n ];
+			this.f1 = new long [ n ];
+			for (int i = 0; i < n; i++) {
+				assert params[i] != null : "param is null";
+				f1[i] = Engine.isLastNode( params[i] ) ? -1L : 0L;
+			}
+			reset();
+		}
+
+		/** @param params asserted non-empty */
+		public static Multi newInstance (final Param... params) {
+			return new Multi (params);
+		}
+		/** @param params asserted non-empty */
+		public static Multi newInstance (final List<Param> params) {
+			assert params != null : "params is null";
+			return new Multi (params.toArray(new Param [ params.size() ]));
+		}
+
+		/** @return number of states (params) */
+		public int size () {
+			return params.length;
+		}
+
+		public void reset () {
+			for (int i = 0; i < params.length; i++) {
+				System.arraycopy( params[i].initialH(), 0, h[i], 0, Spec.state_space_len );
+				keyPending[i] = params[i].hasKey();
+			}
+			t0 = 0L;
+			t1 = 0L;
+			buflen = 0;
+			Arrays.fill( buffer, (byte) 0 );
+		}
+
+		public void update (final byte b) {
+			// the last block is held back, as it is compressed as final in digest()
+			if ( buflen == Spec.block_bytes ) {
+				compress( buffer, 0, Spec.block_bytes, false );
+				buflen = 0;
+			}
+			buffer[ buflen++ ] = b;
+		}
+
+		public void update (final byte[] input) {
+			update( input, 0, input.length );
+		}
+
+		public void update (final byte[] b, int off, int len) {
+			assert b != null : "input buffer (b) is null";
+			if ( len == 0 ) return;
+			// the last block is held back, as it is compressed as final in digest()
+			if ( buflen > 0 ) {
+				final int fill = Math.min( Spec.block_bytes - buflen, len );
+				System.arraycopy( b, off, buffer, buflen, fill );
+				buflen += fill;
+				off += fill;
+				len -= fill;
+				if ( len == 0 ) return;
+				compress( buffer, 0, Spec.block_bytes, false );
+				buflen = 0;
+			}
+			while ( len > Spec.block_bytes ) {
+				compress( b, off, Spec.block_bytes, false );
+				off += Spec.block_bytes;
+				len -= Spec.block_bytes;
+			}
+			System.arraycopy( b, off, buffer, 0, len );
+			buflen = len;
+		}
+
+		/** @return the N digests of the message, in Param order; resets */
+		public byte[][] digest () {
+			final byte[][] outs = new byte [ params.length ][];
+			for (int i = 0; i < params.length; i++) {
+				outs[i] = new byte [ params[i].getDigestLength() ];
+			}
+			digest( outs );
+			return outs;
+		}
+
+		/** @return the N digests of the message + input, in Param order; resets */
+		public byte[][] digest (final byte[] input) {
+			update( input );
+			return digest();
+		}
+
+		/**
+		 * Write the N digests of the message to outs, in Param order; resets.
+		 * @param outs outs[i] must have room for params[i].getDigestLength() bytes
+		 */
+		public void digest (final byte[][] outs) {
+			assert outs != null && outs.length >= params.length : "outs is null or short";
+			Arrays.fill( buffer, buflen, Spec.block_bytes, (byte) 0 );
+			compress( buffer, 0, buflen, true );
+			for (int i = 0; i < params.length; i++) {
+				Engine.hashout( h[i], outs[i], 0, params[i].getDigestLength() );
+			}
+			reset();
+		}
+
+		/**
+		 * decode the block of b at off once, and compress it into all states.
+		 * @param bytes message bytes in block
+		 * @param last final block
+		 */
+		private void compress (final byte[] b, final int off, final int bytes, final boolean last) {
+			t0 += bytes;
+			t1 += (t0 ^ Long.MIN_VALUE) < (bytes ^ Long.MIN_VALUE) ? 1 : 0;
+			final boolean empty = last && t0 == 0 && t1 == 0;
+
+			final long m0  = readLong( b, off );
+			final long m1  = readLong( b, off + 8 );
+			final long m2  = readLong( b, off + 16 );
+			final long m3  = readLong( b, off + 24 );
+			final long m4  = readLong( b, off + 32 );
+			final long m5  = readLong( b, off + 40 );
+			final long m6  = readLong( b, off + 48 );
+			final long m7  = readLong( b, off + 56 );
+			final long m8  = readLong( b, off + 64 );
+			final long m9  = readLong( b, off + 72 );
+			final long m10 = readLong( b, off + 80 );
+			final long m11 = readLong( b, off + 88 );
+			final long m12 = readLong( b, off + 96 );
+			final long m13 = readLong( b, off + 104 );
+			final long m14 = readLong( b, off + 112 );
+			final long m15 = readLong( b, off + 120 );
+			final long f0 = last ? -1L : 0L;
+			for (int i = 0; i < params.length; i++) {
+				long s0 = t0;
+				long s1 = t1;
+				if ( params[i].hasKey() ) {
+					if ( keyPending[i] ) {
+						keyPending[i] = false;
+						// empty message: the key block is the final block
+						Kernel.active.compress( h[i], Spec.block_bytes, 0L,
+								empty ? -1L : 0L, empty ? f1[i] : 0L, params[i].getKeyBlock(), 0 );
+						if ( empty ) continue;
+					}
+					// keyed states count the key block
+					s0 += Spec.block_bytes;
+					s1 += (s0 ^ Long.MIN_VALUE) < (t0 ^ Long.MIN_VALUE) ? 1 : 0;
+				}
+				Engine.compress( h[i], s0, s1, f0, last ? f1[i] : 0L,
+						m0, m1, m2, m3, m4, m5, m6, m7, m8, m9, m10, m11, m12, m13, m14, m15 );
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Blake2b off-heap state slab
+	// ---------------------------------------------------------------------
+
+	/**
+	 * Many concurrent streaming digests (or MACs), with the same Param, held
+	 * off-heap in one direct or memory mapped region, indexed by stream id.
+	 * A stream is (re)started by digest() or reset(); a never used slot is a
+	 * fresh stream. A file backed slab (map) keeps its streams across process
+	 * restarts (and, with force(), across system crashes). h, t and the
+	 * buffered count are stored after each flushed block, before its buffer
+	 * is reused, so an update cut short by a crash leaves the stream at its
+	 * state before the update or after one of its whole blocks (the rest of
+	 * the update is lost); a crash within those few state writes is not
+	 * guarded against.
+	 * <br>
+	 * Slot layout (little-endian): h (0..63), t (64..79), buffered byte count
+	 * (80), open flag (84), block buffer (96..223).
+	 * <br>
+	 * Concurrent use is safe for distinct streams; a stream must be confined
+	 * to one thread at a time.
+	 */
+	public static final class StateSlab {
+		/** bytes per stream slot */
+		static final int slot_bytes = 224;
+		private static final int xoff_t0 = 64;
+		private static final int xoff_t1 = 72;
+		private static final int xoff_buflen = 80;
+		private static final int xoff_open = 84;
+		private static final int xoff_buffer = 96;
+
+		/** slots per segment (ByteBuffers are int indexed) */
+		private static final int segment_shift = 20;
+		private static final int segment_mask = (1 << segment_shift) - 1;
+
+		/** file header: magic, slot bytes, capacity, param block */
+		private static final int header_bytes = 128;
+		private static final long magic = 0x423242534c414231L; // B2BSLAB1
+
+		private final Param param;
+		private final long f1;
+		private final int capacity;
+		private final ByteBuffer[] segments;
+		private final MappedByteBuffer header;
+
+		/** per thread state words (h, t) and block */
+		private static final ThreadLocal<Scratch> scratch = new ThreadLocal<Scratch>() {
+			@Override protected Scratch initialValue () {
+				return new Scratch();
+			}
+		};
+		private static final class Scratch {
+			final long[] s = new long [ 10 ];
+			final byte[] block = new byte [ Spec.block_bytes ];
+		}
+
+		private StateSlab (final Param param, final int capacity, final ByteBuffer[] segments, final MappedByteBuffer header) {
+			this.param = param;
+			this.f1 = Engine.isLastNode( param ) ? -1L : 0L;
+			this.capacity = capacity;
+			this.segments = segments;
+			this.header = header;
+		}
+
+		/** @return a slab of capacity streams in (direct) off-heap memory */
+		public static StateSlab allocate (final int capacity, final Param param) {
+			assert capacity > 0 : assertFail("capacity", capacity, exclusiveLowerBound, 0);
+			assert param != null : "param is null";
+			final ByteBuffer[] segments = new ByteBuffer [ segments( capacity ) ];
+			for (int i = 0; i < segments.length; i++) {
+				segments[i] = ByteBuffer.allocateDirect( segmentSlots( capacity, i ) * slot_bytes ).order( ByteOrder.LITTLE_ENDIAN );
+			}
+			return new StateSlab ( param, capacity, segments, null );
+		}
+
+		/**
+		 * @return a slab of capacity streams mapped to file. If file exists, it
+		 * must be a slab of the same capacity and param, and its streams are
+		 * resumed; otherwise it is created.
+		 */
+		public static StateSlab map (final File file, final int capacity, final Param param) throws IOException {
+			assert file != null : "file is null";
+			assert capacity > 0 : assertFail("capacity", capacity, exclusiveLowerBound, 0);
+			assert param != null : "param is null";
+			final RandomAccessFile raf = new RandomAccessFile( file, "rw" );
+			try {
+				final FileChannel channel = raf.getChannel();
+				final boolean exists = raf.length() > 0;
+				final MappedByteBuffer header = channel.map( FileChannel.MapMode.READ_WRITE, 0, header_bytes );
+				header.order( ByteOrder.LITTLE_ENDIAN );
+				final byte[] pbytes = param.getBytes();
+				if ( exists ) {
+					boolean same = header.getLong( 0 ) == magic && header.getInt( 8 ) == slot_bytes && header.getInt( 12 ) == capacity;
+					for (int i = 0; same && i < Spec.param_bytes; i++) {
+						same = header.get( 16 + i ) == pbytes[i];
+					}
+					if ( !same ) throw new IOException( "not a state slab of this capacity and param: " + file );
+				}
+				final ByteBuffer[] segments = new ByteBuffer [ segments( capacity ) ];
+				long pos = header_bytes;
+				for (int i = 0; i < segments.length; i++) {
+					final long size = (long) segmentSlots( capacity, i ) * slot_bytes;
+					segments[i] = channel.map( FileChannel.MapMode.READ_WRITE, pos, size ).order( ByteOrder.LITTLE_ENDIAN );
+					pos += size;
+				}
+				if ( !exists ) {
+					for (int i = 0; i < Spec.param_bytes; i++) {
+						header.put( 16 + i, pbytes[i] );
+					}
+					header.putInt( 8, slot_bytes );
+					header.putInt( 12, capacity );
+					header.putLong( 0, magic );
+				}
+				return new StateSlab ( param, capacity, segments, header );
+			} finally {
+				raf.close(); // mappings remain valid
+			}
+		}
+
+		private static int segments (final int capacity) {
+			return ((capacity - 1) >>> segment_shift) + 1;
+		}
+		private static int segmentSlots (final int capacity, final int segment) {
+			return Math.min( capacity - (segment << segment_shift), 1 << segment_shift );
+		}
+
+		/** @return number of streams */
+		public int capacity () {
+			return capacity;
+		}
+
+		/** flush a file backed slab to storage */
+		public void force () {
+			if ( header == null ) return;
+			for (final ByteBuffer segment : segments) {
+				((MappedByteBuffer) segment).force();
+			}
+			header.force();
+		}
+
+		/** discard the data of stream streamId */
+		public void reset (final int streamId) {
+			segment( streamId ).putInt( slot( streamId ) + xoff_open, 0 );
+		}
+
+		/** update stream streamId with b[off, off + len) */
+		public void update (final int streamId, final byte[] b, final int off, final int len) {
+			update( streamId, ByteBuffer.wrap( b, off, len ) );
+		}
+
+		/** update stream streamId with the remaining bytes of in; in's position is advanced to its limit */
+		public void update (final int streamId, final ByteBuffer in) {
+			assert in != null : "in is null";
+			final ByteBuffer seg = segment( streamId );
+			final int slot = slot( streamId );
+			final Scratch x = scratch.get();
+			final long[] s = x.s;
+			int buflen = load( seg, slot, s );
+
+			int len = in.remaining();
+			while ( len > 0 ) {
+				if ( buflen == Spec.block_bytes ) {
+					/* flush */
+					s[ 8 ] += Spec.block_bytes;
+					s[ 9 ] += s[ 8 ] == 0 ? 1 : 0;
+					Kernel.active.compress( s, s[ 8 ], s[ 9 ], 0L, 0L, seg, slot + xoff_buffer );
+					buflen = 0;
+					// the slot must not describe the flushed block once the fill below overwrites it
+					store( seg, slot, s, buflen );
+				}
+				if ( buflen == 0 ) {
+					/* compress direct from input - all but the last (possibly final) block */
+					while ( len > Spec.block_bytes ) {
+						s[ 8 ] += Spec.block_bytes;
+						s[ 9 ] += s[ 8 ] == 0 ? 1 : 0;
+						if ( in.hasArray() ) {
+							Kernel.active.compress( s, s[ 8 ], s[ 9 ], 0L, 0L, in.array(), in.arrayOffset() + in.position() );
+							in.position( in.position() + Spec.block_bytes );
+						} else {
+							in.get( x.block );
+							Kernel.active.compress( s, s[ 8 ], s[ 9 ], 0L, 0L, x.block, 0 );
+						}
+						len -= Spec.block_bytes;
+					}
+				}
+				final int fill = Math.min( Spec.block_bytes - buflen, len );
+				final int to = slot + xoff_buffer + buflen;
+				for (int i = 0; i < fill; i++) {
+					seg.put( to + i, in.get() );
+				}
+				buflen += fill;
+				len -= fill;
+			}
+			store( seg, slot, s, buflen );
+		}
+
+		/**
+		 * Write the digest of stream streamId to out, from off, and restart the
+		 * stream.
+		 * @param out must have room for param.getDigestLength() bytes from off
+		 */
+		public void digest (final int streamId, final byte[] out, final int off) {
+			assert out != null && off >= 0 && off + param.getDigestLength() <= out.length : "out is null or short";
+			final ByteBuffer seg = segment( streamId );
+			final int slot = slot( streamId );
+			final Scratch x = scratch.get();
+			final long[] s = x.s;
+			final int buflen = load( seg, slot, s );
+
+			// zero pad last block; set last block flags; and compress
+			final byte[] block = x.block;
+			for (int i = 0; i < buflen; i++) {
+				block[ i ] = seg.get( slot + xoff_buffer + i );
+			}
+			Arrays.fill( block, buflen, Spec.block_bytes, (byte) 0 );
+			s[ 8 ] += buflen;
+			s[ 9 ] += s[ 8 ] == 0 && buflen > 0 ? 1 : 0;
+			Kernel.active.compress( s, s[ 8 ], s[ 9 ], -1L, f1, block, 0 );
+			Engine.hashout( s, out, off, param.getDigestLength() );
+
+			seg.putInt( slot + xoff_open, 0 );
+		}
+
+		/** @return the digest of stream streamId; restarts the stream */
+		public byte[] digest (final int streamId) {
+			final byte[] out = new byte [ param.getDigestLength() ];
+			digest( streamId, out, 0 );
+			return out;
+		}
+
+		private ByteBuffer segment (final int streamId) {
+			assert streamId >= 0 && streamId < capacity : assertFail("streamId", streamId, inclusiveUpperBound, capacity - 1);
+			return segments[ streamId >>> segment_shift ];
+		}
+
+		private static int slot (final int streamId) {
+			return (streamId & segment_mask) * slot_bytes;
+		}
+
+		/**
+		 * load h and t of the stream to s; a stream that is not open is
+		 * started, with the key block (if any) buffered per Engine.
+		 * @return buffered byte count
+		 */
+		private int load (final ByteBuffer seg, final int slot, final long[] s) {
+			if ( seg.getInt( slot + xoff_open ) == 0 ) {
+				System.arraycopy( param.initialH(), 0, s, 0, Spec.state_space_len );
+				s[ 8 ] = 0L;
+				s[ 9 ] = 0L;
+				int buflen = 0;
+				final byte[] key = param.getKeyBlock();
+				if ( key != null ) {
+					for (int i = 0; i < Spec.block_bytes; i++) {
+						seg.put( slot + xoff_buffer + i, key[ i ] );
+					}
+					buflen = Spec.block_bytes;
+				}
+				store( seg, slot, s, buflen );
+				seg.putInt( slot + xoff_open, 1 );
+				return buflen;
+			}
+			for (int i = 0; i < 10; i++) {
+				s[ i ] = seg.getLong( slot + (i << 3) );
+			}
+			return seg.getInt( slot + xoff_buflen );
+		}
+
+		private static void store (final ByteBuffer seg, final int slot, final long[] s, final int buflen) {
+			for (int i = 0; i < 10; i++) {
+				seg.putLong( slot + (i << 3), s[ i ] );
+			}
+			seg.putInt( slot + xoff_buflen, buflen );
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Blake2b prefix (midstate) cache
+	// ---------------------------------------------------------------------
+
+	/**
+	 * A size bounded, least recently used, cache of prefix midstates: given
+	 * a prefix (e.g. a protocol header or tenant namespace), or a caller id
+	 * for it, returns an engine that has already absorbed the prefix. Only
+	 * the bytes after the prefix need be hashed.
+	 * <br>
+	 * Entries are compact immutable snapshots (state words and the buffered
+	 * tail of the prefix), not engines. Note that a hit saves the compress
+	 * calls of all but the last (partial) block of the prefix, so pays for
+	 * prefixes of more than a block, or for any prefix with a keyed Param.
+	 * <br>
+	 * The cache is thread-safe; the returned engines are not shared.
+	 */
+	public static final class PrefixCache {
+		private final int capacity;
+		/** engine of the cache's param; copied (never updated) by get */
+		private final Engine template;
+		/** access ordered; guarded by this */
+		private final LinkedHashMap<Object, Engine.Snapshot> map;
+		/** guarded by this */
+		private long hits, misses;
+
+		/**
+		 * @param capacity max number of cached prefixes
+		 * @param param Param of the returned engines; a keyed param gives Macs
+		 */
+		public PrefixCache (final int capacity, final Param param) {
+			assert capacity > 0 : assertFail("capacity", capacity, exclusiveLowerBound, 0);
+			assert param != null : "param is null";
+			this.capacity = capacity;
+			this.template = param.hasKey() ? Mac.newInstance( param ) : Digest.newInstance( param );
+			this.map = new LinkedHashMap<Object, Engine.Snapshot>( 16, 0.75f, true ) {
+				@Override protected boolean removeEldestEntry (final Map.Entry<Object, Engine.Snapshot> eldest) {
+					return size() > PrefixCache.this.capacity;
+				}
+			};
+		}
+
+		/**
+		 * @return an engine that has absorbed prefix; the cache key is the
+		 * prefix content, copied only when the prefix is cached.
+		 */
+		public Blake2b get (final byte[] prefix) {
+			assert prefix != null : "prefix is null";
+			return get( new Prefix( prefix ), prefix, 0, prefix.length );
+		}
+
+		/**
+		 * @param id caller's (equals/hashCode) key for the prefix
+		 * @return an engine that has absorbed prefix[off, off + len); on a hit
+		 * the prefix bytes are not read.
+		 */
+		public Blake2b get (final Object id, final byte[] prefix, final int off, final int len) {
+			assert id != null : "id is null";
+			final Engine.Snapshot snapshot;
+			synchronized (this) {
+				snapshot = map.get( id );
+				if ( snapshot != null ) hits++; else misses++;
+			}
+			final Engine engine = template.copy();
+			if ( snapshot != null ) {
+				engine.restore( snapshot );
+				return engine;
+			}
+			engine.update( prefix, off, len );
+			final Engine.Snapshot computed = engine.snapshot();
+			final Object key = id instanceof Prefix ? ((Prefix) id).copy() : id;
+			synchronized (this) {
+				map.put( key, computed );
+			}
+			return engine;
+		}
+
+		/** @return number of get calls that found their prefix */
+		public synchronized long hits () {
+			return hits;
+		}
+		/** @return number of get calls that hashed their prefix */
+		public synchronized long misses () {
+			return misses;
+		}
+		/** @return number of cached prefixes */
+		public synchronized int size () {
+			return map.size();
+		}
+		/** @return max number of cached prefixes */
+		public int capacity () {
+			return capacity;
+		}
+		/** drop all cached prefixes (counters are kept) */
+		public synchronized void clear () {
+			map.clear();
+		}
+
+		/** prefix content key; a lookup key wraps the caller's prefix, a cached key a copy */
+		private static final class Prefix {
+			private final byte[] bytes;
+			private final int hash;
+			Prefix (final byte[] prefix) {
+				this( prefix, Arrays.hashCode( prefix ) );
+			}
+			private Prefix (final byte[] bytes, final int hash) {
+				this.bytes = bytes;
+				this.hash = hash;
+			}
+			Prefix copy () {
+				return new Prefix( bytes.clone(), hash );
+			}
+			@Override public int hashCode () {
+				return hash;
+			}
+			@Override public boolean equals (final Object o) {
+				return o instanceof Prefix && Arrays.equals( bytes, ((Prefix) o).bytes );
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Blake2b Incremental Message Digest (Tree)
+	// ---------------------------------------------------------------------
+
+	/**
+	 *  Note that Tree is just a convenience class; incremental hash (tree)
+	 *  can be done directly with the Digest class.
+	 *  <br>
+	 *  Further node, that tree does NOT accumulate the leaf hashes --
+	 *  you need to do that
+	 */
+	public static class Tree {
+
+		final int     depth;
+		final int     fanout;
+		final int     leaf_length;
+		final int     inner_length;
+		final int     digest_length;
+
+		/**
+		 *
+		 * @param fanout
+		 * @param depth
+		 * @param leaf_length size of data input for leaf nodes.
+		 * @param inner_length note this is used also as digest-length for non-root nodes.
+		 * @param digest_length final hash out digest-length for the tree
+		 */
+		public Tree  (
+				final int     depth,
+				final int     fanout,
+				final int     leaf_length,
+				final int     inner_length,
+				final int     digest_length
+		) {
+			this.fanout = fanout;
+			this.depth = depth;
+			this.leaf_length = leaf_length;
+			this.inner_length = inner_length;
+			this.digest_length = digest_length;
+		}
+		private Param treeParam() {
+			return new Param().
+					setDepth(depth).setFanout(fanout).setLeafLength(leaf_length).setInnerLength(inner_length);
+		}
+		/** returns the Digest for tree node @ (depth, offset) */
+		public final Digest getNode (final int depth, final int offset) {
+			final Param nodeParam = treeParam().setNodeDepth(depth).setNodeOffset(offset).setDigestLength(inner_length);
+			return Digest.newInstance(nodeParam);
+		}
+		/**
+		 * re-targets node - a Digest of this tree's nodes, per getNode - to
+		 * the node @ (depth, offset), in place (and without allocation).
+		 */
+		public final Digest getNode (final Digest node, final int depth, final long offset) {
+			assert node != null : "node is null";
+			node.setNode(depth, offset);
+			return node;
+		}
+		/** returns the Digest for root node */
+		public final Digest getRoot () {
+			final int depth = this.depth - 1;
+			final Param rootParam = treeParam().setNodeDepth(depth).setNodeOffset(0L).setDigestLength(digest_length);
+			return Digest.newInstance(rootParam);
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Compression Kernel
+	// ---------------------------------------------------------------------
+
+	/**
+	 * Block compression function SPI. Candidate kernels are the register
+	 * resident "scalar" kernel and, as supported by the runtime, the kernels
+	 * provided by the multi-release jar: "varhandle" (Java 9+) and "vector"
+	 * (Java 16+, with --add-modules jdk.incubator.vector).
+	 * <br>
+	 * On class init each candidate is checked against reference KAT vectors;
+	 * the most preferred correct kernel (vector, varhandle, scalar) is used by
+	 * all engines. (A startup timing, before the JIT has compiled the kernels,
+	 * is not representative of their steady state speed.) System property
+	 * ove.crypto.digest.blake2b.kernel=&lt;name&gt; selects a kernel by name
+	 * instead (if available and correct; otherwise a warning is printed to
+	 * System.err and the preferred kernel is used).
+	 * <br>
+	 * Kernels are stateless and shared.
+	 */
+	public static abstract class Kernel {
+		/** kernel selection system property */
+		static final String property = "ove.crypto.digest.blake2b.kernel";
+
+		/** kernel names, for the kernel property */
+		static final String[] names = { "vector", "varhandle", "scalar", "compact" };
+
+		/** optional kernels provided by the multi-release jar */
+		private static final String[] optional = {
+				"ove.crypto.digest.VectorKernel",
+				"ove.crypto.digest.VarHandleKernel"
+		};
+
+		Kernel () {}
+
+		/** @return the kernel used by Blake2b engines in this JVM */
+		public static Kernel active () {
+			return active;
+		}
+
+		/**
+		 * @return the compact (loop based) kernel, for use with engines
+		 * created with an explicit kernel, e.g. {@link Digest#newInstance(Param, Kernel)}
+		 */
+		public static Kernel compact () {
+			return compact;
+		}
+
+		/** @return kernel name, e.g. "scalar" */
+		public abstract String name ();
+
+		@Override public String toString () {
+			return name();
+		}
+
+		/** compress the block of b at off into h (h[0..7]), given counter (t0, t1) and flags (f0, f1) */
+		abstract void compress (long[] h, long t0, long t1, long f0, long f1, byte[] b, int off);
+
+		/** compress the block of message words m[off .. off + 15] into h; by default, via its byte encoding */
+		void compress (final long[] h, final long t0, final long t1, final long f0, final long f1,
+				final long[] m, final int off) {
+			final byte[] b = block.get();
+			for (int i = 0; i < 16; i++) {
+				writeLong( m[ off + i ], b, i << 3 );
+			}
+			compress( h, t0, t1, f0, f1, b, 0 );
+		}
+
+		/**
+		 * compress the block at (absolute) index off of little-endian ordered b
+		 * into h; b's position is not changed. By default, via a copy of the block.
+		 */
+		void compress (final long[] h, final long t0, final long t1, final long f0, final long f1,
+				final ByteBuffer b, final int off) {
+			final byte[] copy = block.get();
+			for (int i = 0; i < Spec.block_bytes; i += 8) {
+				writeLong( b.getLong( off + i ), copy, i );
+			}
+			compress( h, t0, t1, f0, f1, copy, 0 );
+		}
+
+		/** per thread block, for the default word and buffer compress */
+		private static final ThreadLocal<byte[]> block = new ThreadLocal<byte[]>() {
+			@Override protected byte[] initialValue () {
+				return new byte [ Spec.block_bytes ];
+			}
+		};
+
+		// ---------------------------------------------------------------------
+		// selection
+		// ---------------------------------------------------------------------
+
+		/**
+		 * @return the kernels supported by this runtime that are candidates for
+		 * the active kernel, in order of preference. (Not compact: it is a per
+		 * engine option, used by all engines only if forced.)
+		 */
+		static List<Kernel> available () {
+			final List<Kernel> kernels = new ArrayList<Kernel>();
+			for (final String name : optional) {
+				try {
+					kernels.add( (Kernel) Class.forName(name).newInstance() );
+				} catch (Throwable e) { /* not supported on this runtime */ }
+			}
+			kernels.add( new Scalar() );
+			return kernels;
+		}
 
-	// ---------------------------------------------------------------------
-	// Blake2b Incremental Message Digest (Tree)
-	// ---------------------------------------------------------------------
+		/** @return the forced or most preferred candidate that passes the self-test */
+		private static Kernel select () {
+			final List<Kernel> candidates = available();
 
-	/**
-	 *  Note that Tree is just a convenience class; incremental hash (tree)
-	 *  can be done directly with the Digest class.
-	 *  <br>
-	 *  Further node, that tree does NOT accumulate the leaf hashes --
-	 *  you need to do that
-	 */
-	public static class Tree {
+			final Iterator<Kernel> it = candidates.iterator();
+			while ( it.hasNext() ) {
+				if ( !selftest(it.next()) ) it.remove();
+			}
 
-		final int     depth;
-		final int     fanout;
-		final int     leaf_length;
-		final int     inner_length;
-		final int     digest_length;
+			final String forced = System.getProperty(property);
+			if ( forced != null ) {
+				if ( compact.name().equalsIgnoreCase(forced) && selftest(compact) ) return compact;
+				for (final Kernel k : candidates) {
+					if ( k.name().equalsIgnoreCase(forced) ) return k;
+				}
+				boolean known = false;
+				for (final String name : names) {
+					known |= name.equalsIgnoreCase(forced);
+				}
+				System.err.println( property + "=" + forced + ": " + (known
+						? "kernel not supported by this runtime or failed the self-test"
+						: "unknown kernel (expected one of " + Arrays.toString(names) + ")")
+						+ "; using " + candidates.get(0) );
+			}
+			return candidates.get(0);
+		}
+
+		/** KAT input lengths (input is bytes 0 .. len-1, key is bytes 0 .. 63) */
+		private static final int[] kat_len = { 0, 128, 129, 255 };
+		/** blake2b-kat.out */
+		private static final String[] kat = {
+				"786a02f742015903c6c6fd852552d272912f4740e15847618a86e217f71f5419d25e1031afee585313896444934eb04b903a685b1448b755d56f701afe9be2ce",
+				"2319e3789c47e2daa5fe807f61bec2a1a6537fa03f19ff32e87eecbfd64b7e0e8ccff439ac333b040f19b0c4ddd11a61e24ac1fe0f10a039806c5dcc0da3d115",
+				"f59711d44a031d5f97a9413c065d1e614c417ede998590325f49bad2fd444d3e4418be19aec4e11449ac1a57207898bc57d76a1bcf3566292c20c683a5c4648f",
+				"5b21c5fd8868367612474fa2e70e9cfa2201ffeee8fafab5797ad58fefa17c9b5b107da4a3db6320baaf2c8617d5a51df914ae88da3867c2d41f0cc14fa67928"
+		};
+		/** blake2b-key-kat.out */
+		private static final String[] key_kat = {
+				"10ebb67700b1868efb4417987acf4690ae9d972fb7a590c2f02871799aaa4786b5e996e8f0f4eb981fc214b005f42d2ff4233499391653df7aefcbc13fc51568",
+				"72065ee4dd91c2d8509fa1fc28a37c7fc9fa7d5b3f8ad3d0d7a25626b57b1b44788d4caf806290425f9890a3a2a35a905ab4b37acfd0da6e4517b2525c9651e4",
+				"64475dfe7600d7171bea0b394e27c9b00d8e74dd1e416a79473682ad3dfdbb706631558055cfc8a40e07bd015a4540dcdea15883cbbf31412df1de1cd4152b91",
+				"142709d62e28fcccd0af97fad0f8465b971e82201dc51070faa0372aa43e92484be1c1e73ba10906d5d1853db6a4106e0a7bf9800d373d6dee2d46d62ef2a461"
+		};
 
 		/**
-		 *
-		 * @param fanout
-		 * @param depth
-		 * @param leaf_length size of data input for leaf nodes.
-		 * @param inner_length note this is used also as digest-length for non-root nodes.
-		 * @param digest_length final hash out digest-length for the tree
+		 * active kernel. (Engine reads this directly as Kernel init uses Engine.)
+		 * Note: declared after the KAT vectors used by select.
 		 */
-		public Tree  (
-				final int     depth,
-				final int     fanout,
-				final int     leaf_length,
-				final int     inner_length,
-				final int     digest_length
-		) {
-			this.fanout = fanout;
-			this.depth = depth;
-			this.leaf_length = leaf_length;
-			this.inner_length = inner_length;
-			this.digest_length = digest_length;
+		private static final Kernel compact = new Compact();
+
+		static final Kernel active = select();
+
+		/** @return true if k reproduces the (keyed) KAT vectors; false on mismatch or error */
+		static boolean selftest (final Kernel k) {
+			try {
+				final byte[] key = new byte [ Spec.max_key_bytes ];
+				for (int i = 0; i < key.length; i++) key[i] = (byte) i;
+				for (int i = 0; i < kat_len.length; i++) {
+					if ( !kat[i].equals(toHexStr(hash(k, null, kat_len[i]))) ) return false;
+					if ( !key_kat[i].equals(toHexStr(hash(k, key, kat_len[i]))) ) return false;
+				}
+				return true;
+			} catch (Throwable e) {
+				return false;
+			}
 		}
-		private Param treeParam() {
-			return new Param().
-					setDepth(depth).setFanout(fanout).setLeafLength(leaf_length).setInnerLength(inner_length);
+
+		/** 512 bit (keyed) hash of KAT input of len bytes, directly with kernel k */
+		private static byte[] hash (final Kernel k, final byte[] key, final int len) {
+			final Param param = key == null ? new Param() : new Param().setKey(key);
+			final long[] h = param.initialH().clone();
+			final int prefix = key == null ? 0 : Spec.block_bytes;
+			final int total = prefix + len;
+			final int blocks = total == 0 ? 1 : (total + Spec.block_bytes - 1) / Spec.block_bytes;
+			final byte[] b = new byte [ blocks * Spec.block_bytes ];
+			if ( key != null ) System.arraycopy( param.getKeyBlock(), 0, b, 0, Spec.block_bytes );
+			for (int i = 0; i < len; i++) b[ prefix + i ] = (byte) i;
+
+			long t0 = 0;
+			for (int i = 0; i < blocks; i++) {
+				final boolean last = i == blocks - 1;
+				t0 = last ? total : t0 + Spec.block_bytes;
+				k.compress( h, t0, 0L, last ? 0xFFFFFFFFFFFFFFFFL : 0L, 0L, b, i * Spec.block_bytes );
+			}
+			final byte[] out = new byte [ Spec.max_digest_bytes ];
+			for (int w = 0; w < h.length; w++) {
+				writeLong( h[w], out, w << 3 );
+			}
+			return out;
 		}
-		/** returns the Digest for tree node @ (depth, offset) */
-		public final Digest getNode (final int depth, final int offset) {
-			final Param nodeParam = treeParam().setNodeDepth(depth).setNodeOffset(offset).setDigestLength(inner_length);
-			return Digest.newInstance(nodeParam);
+
+		// ---------------------------------------------------------------------
+		// kernels
+		// ---------------------------------------------------------------------
+
+		/** the register resident kernel, with shift &amp; mask block decoding */
+		static final class Scalar extends Kernel {
+			private static final Engine.LittleEndian.Codec le = new Engine.LittleEndian.Codec();
+
+			@Override public final String name () { return "scalar"; }
+
+			@Override final void compress (final long[] h,
+					final long t0, final long t1, final long f0, final long f1,
+					final byte[] b, final int off) {
+				final Engine.LittleEndian.Codec le = Scalar.le;
+				Engine.compress( h, t0, t1, f0, f1,
+						le.getLong(b, off),       le.getLong(b, off + 8),
+						le.getLong(b, off + 16),  le.getLong(b, off + 24),
+						le.getLong(b, off + 32),  le.getLong(b, off + 40),
+						le.getLong(b, off + 48),  le.getLong(b, off + 56),
+						le.getLong(b, off + 64),  le.getLong(b, off + 72),
+						le.getLong(b, off + 80),  le.getLong(b, off + 88),
+						le.getLong(b, off + 96),  le.getLong(b, off + 104),
+						le.getLong(b, off + 112), le.getLong(b, off + 120));
+			}
+
+			@Override final void compress (final long[] h,
+					final long t0, final long t1, final long f0, final long f1,
+					final long[] m, final int off) {
+				Engine.compress( h, t0, t1, f0, f1,
+						m[ off ],      m[ off + 1 ],  m[ off + 2 ],  m[ off + 3 ],
+						m[ off + 4 ],  m[ off + 5 ],  m[ off + 6 ],  m[ off + 7 ],
+						m[ off + 8 ],  m[ off + 9 ],  m[ off + 10 ], m[ off + 11 ],
+						m[ off + 12 ], m[ off + 13 ], m[ off + 14 ], m[ off + 15 ]);
+			}
+
+			@Override final void compress (final long[] h,
+					final long t0, final long t1, final long f0, final long f1,
+					final ByteBuffer b, final int off) {
+				Engine.compress( h, t0, t1, f0, f1,
+						b.getLong( off ),       b.getLong( off + 8 ),
+						b.getLong( off + 16 ),  b.getLong( off + 24 ),
+						b.getLong( off + 32 ),  b.getLong( off + 40 ),
+						b.getLong( off + 48 ),  b.getLong( off + 56 ),
+						b.getLong( off + 64 ),  b.getLong( off + 72 ),
+						b.getLong( off + 80 ),  b.getLong( off + 88 ),
+						b.getLong( off + 96 ),  b.getLong( off + 104 ),
+						b.getLong( off + 112 ), b.getLong( off + 120 ));
+			}
 		}
-		/** returns the Digest for root node */
-		public final Digest getRoot () {
-			final int depth = this.depth - 1;
-			final Param rootParam = treeParam().setNodeDepth(depth).setNodeOffset(0L).setDigestLength(digest_length);
-			return Digest.newInstance(rootParam);
+
+		/**
+		 * A compact kernel: a loop over the rounds, driven by the SIGMA message
+		 * schedule, with a single G function. At a fraction of the bytecode of
+		 * the unrolled kernel, it is easily inlined and takes little code cache,
+		 * for processes that hash many small messages amid lots of other hot code.
+		 */
+		static final class Compact extends Kernel {
+			/** message word schedule, per round (rounds 10 and 11 repeat 0 and 1) */
+			private static final byte[] sigma = {
+					 0,  1,  2,  3,  4,  5,  6,  7,  8,  9, 10, 11, 12, 13, 14, 15,
+					14, 10,  4,  8,  9, 15, 13,  6,  1, 12,  0,  2, 11,  7,  5,  3,
+					11,  8, 12,  0,  5,  2, 15, 13, 10, 14,  3,  6,  7,  1,  9,  4,
+					 7,  9,  3,  1, 13, 12, 11, 14,  2,  6,  5, 10,  4,  0, 15,  8,
+					 9,  0,  5,  7,  2,  4, 10, 15, 14,  1, 11, 12,  6,  8,  3, 13,
+					 2, 12,  6, 10,  0, 11,  8,  3,  4, 13,  7,  5, 15, 14,  1,  9,
+					12,  5,  1, 15, 14, 13,  4, 10,  0,  7,  6,  3,  9,  2,  8, 11,
+					13, 11,  7, 14, 12,  1,  3,  9,  5,  0, 15,  4,  8,  6,  2, 10,
+					 6, 15, 14,  9, 11,  3,  0,  8, 12,  2, 13,  7,  1,  4, 10,  5,
+					10,  2,  8,  4,  7,  6,  1,  5, 15, 11,  9, 14,  3, 12, 13,  0
+			};
+
+			/** per thread working vector (0..15) and message words (16..31) */
+			private static final ThreadLocal<long[]> scratch = new ThreadLocal<long[]>() {
+				@Override protected long[] initialValue () {
+					return new long [ 32 ];
+				}
+			};
+
+			@Override public final String name () { return "compact"; }
+
+			@Override final void compress (final long[] h,
+					final long t0, final long t1, final long f0, final long f1,
+					final byte[] b, final int off) {
+				final long[] v = scratch.get();
+				for (int i = 0; i < 16; i++) {
+					v[ 16 + i ] = readLong( b, off + (i << 3) );
+				}
+				rounds( h, t0, t1, f0, f1, v );
+			}
+
+			@Override final void compress (final long[] h,
+					final long t0, final long t1, final long f0, final long f1,
+					final long[] m, final int off) {
+				final long[] v = scratch.get();
+				System.arraycopy( m, off, v, 16, 16 );
+				rounds( h, t0, t1, f0, f1, v );
+			}
+
+			@Override final void compress (final long[] h,
+					final long t0, final long t1, final long f0, final long f1,
+					final ByteBuffer b, final int off) {
+				final long[] v = scratch.get();
+				for (int i = 0; i < 16; i++) {
+					v[ 16 + i ] = b.getLong( off + (i << 3) );
+				}
+				rounds( h, t0, t1, f0, f1, v );
+			}
+
+			/** the 12 rounds over h, with the message words in v[16..31] */
+			private static void rounds (final long[] h,
+					final long t0, final long t1, final long f0, final long f1, final long[] v) {
+				System.arraycopy( h, 0, v, 0, 8 );
+				System.arraycopy( Spec.IV, 0, v, 8, 8 );
+				v[ 12 ] ^= t0;
+				v[ 13 ] ^= t1;
+				v[ 14 ] ^= f0;
+				v[ 15 ] ^= f1;
+
+				for (int r = 0; r < 12; r++) {
+					final int s = (r % 10) << 4;
+					g( v, 0, 4,  8, 12, v[ 16 + sigma[s] ],      v[ 16 + sigma[s + 1] ] );
+					g( v, 1, 5,  9, 13, v[ 16 + sigma[s + 2] ],  v[ 16 + sigma[s + 3] ] );
+					g( v, 2, 6, 10, 14, v[ 16 + sigma[s + 4] ],  v[ 16 + sigma[s + 5] ] );
+					g( v, 3, 7, 11, 15, v[ 16 + sigma[s + 6] ],  v[ 16 + sigma[s + 7] ] );
+					g( v, 0, 5, 10, 15, v[ 16 + sigma[s + 8] ],  v[ 16 + sigma[s + 9] ] );
+					g( v, 1, 6, 11, 12, v[ 16 + sigma[s + 10] ], v[ 16 + sigma[s + 11] ] );
+					g( v, 2, 7,  8, 13, v[ 16 + sigma[s + 12] ], v[ 16 + sigma[s + 13] ] );
+					g( v, 3, 4,  9, 14, v[ 16 + sigma[s + 14] ], v[ 16 + sigma[s + 15] ] );
+				}
+				for (int i = 0; i < 8; i++) {
+					h[ i ] ^= v[ i ] ^ v[ i + 8 ];
+				}
+			}
+
+			/** the G mixing function, on v[a], v[b], v[c], v[d] with message words x, y */
+			private static void g (final long[] v, final int a, final int b, final int c, final int d,
+					final long x, final long y) {
+				long va = v[ a ];
+				long vb = v[ b ];
+				long vc = v[ c ];
+				long vd = v[ d ];
+				va = va + vb + x;
+				vd ^= va;
+				vd = ( vd << 32 ) | ( vd >>> 32 );
+				vc = vc + vd;
+				vb ^= vc;
+				vb = ( vb >>> 24 ) | ( vb << 40 );
+				va = va + vb + y;
+				vd ^= va;
+				vd = ( vd >>> 16 ) | ( vd << 48 );
+				vc = vc + vd;
+				vb ^= vc;
+				vb = ( vb << 1 ) | ( vb >>> 63 );
+				v[ a ] = va;
+				v[ b ] = vb;
+				v[ c ] = vc;
+				v[ d ] = vd;
+			}
 		}
 	}
 
 	// ---------------------------------------------------------------------
 	// Engine
 	// ---------------------------------------------------------------------
-	static class Engine implements Blake2b {
+	static abstract class Engine implements Blake2b {
 
 		// ---------------------------------------------------------------------
 		// Blake2b State(+) per reference implementation
 		// ---------------------------------------------------------------------
 		// REVU: address last_node TODO part of the Tree/incremental
+		/**
+		 * Compact state: the spec's h, t and f words in one array, and the
+		 * block buffer. (Compressor scratch is not part of the state.)
+		 */
 		static final class State {
-			/** per spec */
-			private final   long[]  h = new long [ 8 ];
-			/** per spec */
-			private final   long[]  t = new long [ 2 ];
-			/** per spec */
-			private final   long[]  f = new long [ 2 ];
+			/** offsets of t and f words in s */
+			static final int t0 = 8, t1 = 9, f0 = 10, f1 = 11;
+
+			/** per spec: h (0..7), t (8..9), f (10..11) */
+			private final   long[]  s = new long [ 12 ];
 			/** per spec (tree) */
 			private         boolean last_node 	= false;
-			/** pulled up 2b optimal */
-			private final   long[]  m = new long [16];
-			/** pulled up 2b optimal */
-			private final   long[]  v = new long [16];
 
 			/** compressor cache buffer */
 			private final   byte[]  buffer;
@@ -312,7 +2224,7 @@ public interface Blake2b {
 			private         int buflen;
 
 			/** digest length from init param - copied here on init */
-			private final   int outlen;
+			private         int outlen;
 
 			private final int digestType;
 
@@ -323,15 +2235,24 @@ public interface Blake2b {
 				this.digestType = isMac ? 1 : 2;
 			}
 
+			/** copy of state; only the buffered bytes of the buffer are copied */
+			State(final State state) {
+				System.arraycopy( state.s, 0, this.s, 0, this.s.length );
+				this.buffer = new byte [ Spec.block_bytes ];
+				System.arraycopy( state.buffer, 0, this.buffer, 0, state.buflen );
+				this.buflen = state.buflen;
+				this.outlen = state.outlen;
+				this.last_node = state.last_node;
+				this.digestType = state.digestType;
+			}
+
 			public ResumeHandle toResumableForm() {
 				ResumeHandle state = new ResumeHandle();
-				state.h = h;
-				state.t = t;
-				state.f = f;
+				state.h = Arrays.copyOfRange(s, 0, 8);
+				state.t = Arrays.copyOfRange(s, t0, t0 + 2);
+				state.f = Arrays.copyOfRange(s, f0, f0 + 2);
 				state.last_node = last_node;
-				state.m = m;
-				state.v = v;
-				state.buffer = buffer;
+				state.buffer = buffer.clone();
 				state.buflen = buflen;
 				state.outlen = outlen;
 				state.type = digestType;
@@ -339,20 +2260,33 @@ public interface Blake2b {
 			}
 		}
 
+		/** immutable copy of a State: s and the buffered bytes */
+		static final class Snapshot {
+			private final long[] s;
+			private final byte[] buffered;
+			private final boolean last_node;
+			private final int outlen;
+			Snapshot (final State state) {
+				this.s = state.s.clone();
+				this.buffered = Arrays.copyOf( state.buffer, state.buflen );
+				this.last_node = state.last_node;
+				this.outlen = state.outlen;
+			}
+		}
+
 		private State state;
 		/** configuration params */
-		private final   Param param;
+		private         Param param;
+		/** param is this engine's own copy (see re-parameterization) */
+		private         boolean ownsParam;
+		/** compression kernel */
+		private final   Kernel kernel;
+		/** MAC only: state vector after the key block (computed on construction) */
+		private         long[] keyed_h;
 
 		/** read only */
 		private static byte[] zeropad = new byte [ Spec.block_bytes ];
 
-		/** a little bit of semantics */
-		interface flag {
-			int last_block 	= 0;
-			int last_node 	= 1;
-		}
-		/** to support update(byte) */
-		private final	byte[] oneByte = new byte[1];
 
 		// ---------------------------------------------------------------------
 		// Ctor & Initialization
@@ -360,7 +2294,7 @@ public interface Blake2b {
 
 		/** Basic use constructor pending (TODO) JCA/JCE compliance */
 		Engine () {
-			this( new Param() );
+			this( Param.canonical( Spec.max_digest_bytes ) );
 		}
 
 		Engine(State state, Param param) {
@@ -368,40 +2302,171 @@ public interface Blake2b {
 			assert param != null : "param is null";
 			this.state = state;
 			this.param = param;
+			this.kernel = Kernel.active;
+			this.keyed_h = midstate( param, kernel );
 		}
 
 		/** User provided Param for custom configurations */
 		Engine (final Param param) {
+			this( param, Kernel.active );
+		}
+
+		/** User provided Param and compression kernel */
+		Engine (final Param param, final Kernel kernel) {
 			assert param != null : "param is null";
+			assert kernel != null : "kernel is null";
 			this.param = param;
+			this.kernel = kernel;
+			this.keyed_h = midstate( param, kernel );
 			state  = new State(param.getDigestLength(), this instanceof Mac);
+			state.last_node = isLastNode( param );
+
+			initialize();
+		}
+
+		/**
+		 * Copy of engine e, in the same state. A param (and key midstate) that
+		 * e does not own is read only and shared: the copy clones it on
+		 * re-parameterization. One that e owns, and so re-targets in place, is
+		 * cloned. e is not modified (e.g. a shared template engine).
+		 */
+		Engine (final Engine e) {
+			this.state = new State( e.state );
+			this.kernel = e.kernel;
+			if ( e.ownsParam ) {
+				this.param = e.param.clone();
+				this.keyed_h = e.keyed_h == null ? null : e.keyed_h.clone();
+				this.ownsParam = true;
+			} else {
+				this.param = e.param;
+				this.keyed_h = e.keyed_h;
+			}
+		}
+
+		/** @return true if param is that of a tree's root or the last node of a level */
+		static boolean isLastNode (final Param param) {
 			if ( param.getDepth() > Param.Default.depth ) {
 				final int ndepth = param.getNodeDepth();
 				final long nxoff = param.getNodeOffset();
 				if (ndepth == param.getDepth() - 1) {
-					state.last_node = true;
 					assert nxoff == 0 : "root must have offset of zero";
-				} else if ( nxoff == param.getFanout() - 1) {
-					this.state.last_node = true;
+					return true;
 				}
+				return nxoff == param.getFanout() - 1;
 			}
-
-			initialize();
+			return false;
 		}
 
 		public ResumeHandle state() {
 			return state.toResumableForm();
 		}
 
+		/** {@inheritDoc} */
+		@Override public abstract Engine copy () ;
+
+		/** @return immutable copy of the current state */
+		final Snapshot snapshot () {
+			return new Snapshot( state );
+		}
+
+		/** set the current state to snapshot, e.g. of a (copy of) this engine */
+		final void restore (final Snapshot snapshot) {
+			System.arraycopy( snapshot.s, 0, state.s, 0, snapshot.s.length );
+			final int buflen = snapshot.buffered.length;
+			System.arraycopy( snapshot.buffered, 0, state.buffer, 0, buflen );
+			state.buflen = buflen;
+			state.last_node = snapshot.last_node;
+			state.outlen = snapshot.outlen;
+		}
+
 		private void initialize () {
+			// if we have a key, restore the state after the (compressed) key block
+			if ( keyed_h != null ) {
+				System.arraycopy( keyed_h, 0, this.state.s, 0, Spec.state_space_len);
+				this.state.s[ State.t0 ] = Spec.block_bytes;
+				return;
+			}
 			// state vector h - copy values to address reset() requests
-			System.arraycopy( param.initialized_H(), 0, this.state.h, 0, Spec.state_space_len);
+			System.arraycopy( param.initialH(), 0, this.state.s, 0, Spec.state_space_len);
+		}
+
+		/** @return state vector after compressing the key block of param, or null if not keyed */
+		private static long[] midstate (final Param param, final Kernel kernel) {
+			if ( !param.hasKey() ) return null;
+			// a frozen param carries its (read only) midstate
+			if ( param.isFrozen() && kernel == Kernel.active ) return param.getKeyMidstate();
+			return midstate( param, kernel, new long [ Spec.state_space_len ] );
+		}
 
-			// if we have a key update initial block
+		/** @return h, set to the state vector after compressing the key block of param */
+		static long[] midstate (final Param param, final Kernel kernel, final long[] h) {
 			// Note param has zero padded key_bytes to Spec.max_key_bytes
-			if(param.hasKey){
-				this.update (param.key_bytes, 0, Spec.block_bytes);
+			System.arraycopy( param.initialH(), 0, h, 0, Spec.state_space_len );
+			kernel.compress( h, Spec.block_bytes, 0L, 0L, 0L, param.getKeyBlock(), 0 );
+			return h;
+		}
+
+		// ---------------------------------------------------------------------
+		// Re-parameterization
+		// ---------------------------------------------------------------------
+		// An engine can be re-targeted in place, e.g. to the next node of a
+		// tree, without a new Param or engine. Each setter updates the affected
+		// param (h) words only, and resets the engine. On first use the engine
+		// takes a private copy of a (possibly shared) Param; thereafter
+		// re-targeting does not allocate.
+
+		/** re-target to tree node @ (node_depth, node_offset) (resets) */
+		public final void setNode (final int node_depth, final long node_offset) {
+			ownParam().setNodeDepth( node_depth ).setNodeOffset( node_offset );
+			retargeted();
+		}
+		/** re-target to node offset (resets) */
+		public final void setNodeOffset (final long node_offset) {
+			ownParam().setNodeOffset( node_offset );
+			retargeted();
+		}
+		/** re-target to node depth (resets) */
+		public final void setNodeDepth (final int node_depth) {
+			ownParam().setNodeDepth( node_depth );
+			retargeted();
+		}
+		/** re-target to salt (resets) */
+		public final void setSalt (final byte[] salt) {
+			ownParam().setSalt( salt );
+			retargeted();
+		}
+		/** re-target to personalization (resets) */
+		public final void setPersonal (final byte[] personal) {
+			ownParam().setPersonal( personal );
+			retargeted();
+		}
+		/** re-target to digest length (resets) */
+		public final void setDigestLength (final int len) {
+			ownParam().setDigestLength( len );
+			retargeted();
+		}
+		/** re-target to key (resets) */
+		public final void setKey (final byte[] key) {
+			ownParam().setKey( key );
+			retargeted();
+		}
+
+		private Param ownParam () {
+			if ( !ownsParam ) {
+				param = param.clone();
+				keyed_h = null; // may be shared with a copy
+				ownsParam = true;
 			}
+			return param;
+		}
+
+		private void retargeted () {
+			state.outlen = param.getDigestLength();
+			state.last_node = isLastNode( param );
+			if ( param.hasKey() ) {
+				keyed_h = midstate( param, kernel, keyed_h != null ? keyed_h : new long [ Spec.state_space_len ] );
+			}
+			reset();
 		}
 
 		public static void main(String... args) {
@@ -418,20 +2483,13 @@ public interface Blake2b {
 		@Override final public void reset () {
 			// reset cache
 			this.state.buflen = 0;
-			for(int i=0; i < state.buffer.length; i++){
-				state.buffer[ i ] = (byte) 0;
-			}
-
-			// reset flags
-			this.state.f[ 0 ] = 0L;
-			this.state.f[ 1 ] = 0L;
+			Arrays.fill( state.buffer, (byte) 0 );
 
-			// reset counters
-			this.state.t[ 0 ] = 0L;
-			this.state.t[ 1 ] = 0L;
+			// reset counters and flags
+			Arrays.fill( state.s, State.t0, State.f1 + 1, 0L );
 
 			// reset state vector
-			// NOTE: keep as last stmt as init calls update0 for MACs.
+			// NOTE: keep as last stmt as init sets the counter for MACs.
 			initialize();
 		}
 
@@ -441,23 +2499,19 @@ public interface Blake2b {
 				throw new IllegalArgumentException("input buffer (b) is null");
 			}
 			/* zero or more calls to compress */
-			final long[] t = state.t;
 			final byte[] buffer = state.buffer;
 			while (len > 0) {
 				if ( state.buflen == 0) {
-					/* try compressing direct from input ? */
-					while ( len > Spec.block_bytes ) {
-						t[0] += Spec.block_bytes;
-						t[1] += (t[0] < 0 && state.buflen > -t[0]) ? 1 : 0;
-						compress( b, off);
-						len -= Spec.block_bytes;
-						off += Spec.block_bytes;
+					/* compress direct from input - all but the last (possibly final) block */
+					if ( len > Spec.block_bytes ) {
+						final int blocks = (len - 1) / Spec.block_bytes;
+						compressBlocks( b, off, blocks );
+						len -= blocks * Spec.block_bytes;
+						off += blocks * Spec.block_bytes;
 					}
 				} else if ( state.buflen == Spec.block_bytes ) {
 					/* flush */
-					t[0] += Spec.block_bytes;
-					t[1] += t[0] == 0 ? 1 : 0;
-					compress( buffer, 0 );
+					compressBlocks( buffer, 0, 1 );
 					state.buflen = 0;
 					continue;
 				}
@@ -474,10 +2528,106 @@ public interface Blake2b {
 			}
 		}
 
+		/** {@inheritDoc} */
+		@Override final public void update (final ByteBuffer in) {
+			assert in != null : "in is null";
+			if ( in.hasArray() ) {
+				final int pos = in.position();
+				update( in.array(), in.arrayOffset() + pos, in.limit() - pos );
+				in.position( in.limit() );
+				return;
+			}
+			final ByteOrder order = in.order();
+			in.order( ByteOrder.LITTLE_ENDIAN );
+			final Kernel kernel = this.kernel;
+			final byte[] buffer = state.buffer;
+			int pos = in.position();
+			int len = in.limit() - pos;
+			while (len > 0) {
+				if ( state.buflen == Spec.block_bytes ) {
+					/* flush */
+					compressBlocks( buffer, 0, 1 );
+					state.buflen = 0;
+				}
+				if ( state.buflen == 0 ) {
+					/* compress direct from input words - all but the last (possibly final) block */
+					final long[] s = state.s;
+					while ( len > Spec.block_bytes ) {
+						s[ State.t0 ] += Spec.block_bytes;
+						s[ State.t1 ] += s[ State.t0 ] == 0 ? 1 : 0;
+						kernel.compress( s, s[ State.t0 ], s[ State.t1 ], 0L, 0L, in, pos );
+						pos += Spec.block_bytes;
+						len -= Spec.block_bytes;
+					}
+				}
+				final int cap = Spec.block_bytes - state.buflen;
+				final int fill = len > cap ? cap : len;
+				in.position( pos );
+				in.get( buffer, state.buflen, fill );
+				state.buflen += fill;
+				pos += fill;
+				len -= fill;
+			}
+			in.position( pos );
+			in.order( order );
+		}
+
+		/** {@inheritDoc} */
+		@Override final public void update (final long[] w, int off, int len) {
+			assert w != null : "words is null";
+			assert off >= 0 && len >= 0 && off + len <= w.length : "off/len out of bounds";
+			final byte[] buffer = state.buffer;
+			while (len > 0) {
+				if ( state.buflen == Spec.block_bytes ) {
+					/* flush */
+					compressBlocks( buffer, 0, 1 );
+					state.buflen = 0;
+				}
+				if ( state.buflen == 0 && len > 16 ) {
+					/* compress direct from words - all but the last (possibly final) block */
+					final long[] s = state.s;
+					final Kernel kernel = this.kernel;
+					long t0 = s[ State.t0 ];
+					long t1 = s[ State.t1 ];
+					do {
+						t0 += Spec.block_bytes;
+						t1 += t0 == 0 ? 1 : 0;
+						kernel.compress( s, t0, t1, 0L, 0L, w, off );
+						off += 16;
+						len -= 16;
+					} while (len > 16);
+					s[ State.t0 ] = t0;
+					s[ State.t1 ] = t1;
+				}
+				if ( (state.buflen & 7) != 0 ) {
+					/* unaligned: a word at a time, as bytes */
+					long v = w[ off++ ];
+					len--;
+					for (int i = 0; i < 8; i++) {
+						update( (byte) v );
+						v >>>= 8;
+					}
+					continue;
+				}
+				final int cap = (Spec.block_bytes - state.buflen) >>> 3;
+				final int fill = len > cap ? cap : len;
+				for (int i = 0; i < fill; i++) {
+					writeLong( w[ off + i ], buffer, state.buflen );
+					state.buflen += 8;
+				}
+				len -= fill;
+				off += fill;
+			}
+		}
+
 		/** {@inheritDoc} */
 		@Override final public void update (byte b) {
-			oneByte[0] = b;
-			update (oneByte, 0, 1);
+			if ( state.buflen == Spec.block_bytes ) {
+				/* flush */
+				compressBlocks( state.buffer, 0, 1 );
+				state.buflen = 0;
+			}
+			state.buffer[ state.buflen++ ] = b;
 		}
 
 		/** {@inheritDoc} */
@@ -487,21 +2637,72 @@ public interface Blake2b {
 
 		/** {@inheritDoc} */
 		@Override final public void digest(byte[] output, int off, int len) {
+			finish();
+			hashout( output, off, len );
+			reset();
+		}
+
+		/** {@inheritDoc} */
+		@Override final public void digest (final ByteBuffer out) {
+			// check before the final compress, so that the state is kept
+			if ( out.isReadOnly() ) throw new ReadOnlyBufferException();
+			if ( out.remaining() < state.outlen ) throw new BufferOverflowException();
+			finish();
+			hashout( state.s, out, state.outlen );
+			reset();
+		}
+
+		/** {@inheritDoc} */
+		@Override final public long digestToLong () {
+			finish();
+			final long w = state.s[ 0 ];
+			final int outlen = state.outlen;
+			reset();
+			return outlen < 8 ? w & ((1L << (outlen << 3)) - 1) : w;
+		}
+
+		/** {@inheritDoc} */
+		@Override final public void digestTo (final long[] out) {
+			final int outlen = state.outlen;
+			final int words = (outlen + 7) >>> 3;
+			assert out != null && out.length >= words : "out is null or short";
+			finish();
+			System.arraycopy( state.s, 0, out, 0, words );
+			if ( (outlen & 7) != 0 ) {
+				out[ words - 1 ] &= (1L << ((outlen & 7) << 3)) - 1;
+			}
+			reset();
+		}
+
+		/** {@inheritDoc} */
+		@Override final public Hash digestToHash () {
+			finish();
+			final Hash hash = Hash.of( state.s, state.outlen );
+			reset();
+			return hash;
+		}
+
+		/** final compress: the digest is then in state vector h */
+		private void finish () {
+			final long[] s = state.s;
+			if ( keyed_h != null && state.buflen == 0 && s[ State.t0 ] == Spec.block_bytes && s[ State.t1 ] == 0 ) {
+				// empty message: the key block is the final block
+				System.arraycopy( param.initialH(), 0, s, 0, Spec.state_space_len );
+				System.arraycopy( param.getKeyBlock(), 0, state.buffer, 0, Spec.block_bytes );
+				state.buflen = Spec.block_bytes;
+				s[ State.t0 ] = 0L;
+			}
 			// zero pad last block; set last block flags; and compress
 			System.arraycopy( zeropad, 0, state.buffer, state.buflen, Spec.block_bytes - state.buflen);
 			if(state.buflen > 0) {
-				this.state.t[0] += state.buflen;
-				this.state.t[1] += this.state.t[0] == 0 ? 1 : 0;
+				s[ State.t0 ] += state.buflen;
+				s[ State.t1 ] += s[ State.t0 ] == 0 ? 1 : 0;
 			}
 
-			this.state.f[ flag.last_block ] = 0xFFFFFFFFFFFFFFFFL;
-			this.state.f[ flag.last_node ] = this.state.last_node ? 0xFFFFFFFFFFFFFFFFL : 0x0L;
+			s[ State.f0 ] = 0xFFFFFFFFFFFFFFFFL;
+			s[ State.f1 ] = this.state.last_node ? 0xFFFFFFFFFFFFFFFFL : 0x0L;
 
-			// compres and write final out (truncated to len) to output
 			compress( state.buffer, 0 );
-			hashout( output, off, len );
-
-			reset();
 		}
 
 		/** {@inheritDoc} */
@@ -526,26 +2727,43 @@ public interface Blake2b {
 		 * truncate full output if necessary.
 		 */
 		private void hashout (final byte[] out, final int offset, final int hashlen) {
+			hashout( state.s, out, offset, hashlen );
+		}
+
+		/** put hashlen bytes of state vector h to out, from (and advancing) its position */
+		static void hashout (final long[] h, final ByteBuffer out, final int hashlen) {
+			final int pos = out.position();
+			if ( out.hasArray() ) {
+				if ( hashlen > out.remaining() ) throw new BufferOverflowException();
+				hashout( h, out.array(), out.arrayOffset() + pos, hashlen );
+				out.position( pos + hashlen );
+				return;
+			}
+			final ByteOrder order = out.order();
+			out.order( ByteOrder.LITTLE_ENDIAN );
+			final int whole = hashlen >>> 3;
+			for (int i = 0; i < whole; i++) {
+				out.putLong( h[ i ] );
+			}
+			for (int i = whole << 3; i < hashlen; i++) {
+				out.put( (byte) (h[ i >>> 3 ] >>> ((i & 7) << 3)) );
+			}
+			out.order( order );
+		}
+
+		/** write hashlen bytes of state vector h to out, from offset */
+		static void hashout (final long[] h, final byte[] out, final int offset, final int hashlen) {
 			// write max number of whole longs
 			final int lcnt = hashlen >>> 3;
 			long v = 0;
 			int i = offset;
-			final long[] h = state.h;
 			for (int w = 0; w < lcnt; w++) {
-				v = h [ w ];
-				out [ i ] = (byte) v; v >>>= 8;
-				out [ i+1 ] = (byte) v; v >>>= 8;
-				out [ i+2 ] = (byte) v; v >>>= 8;
-				out [ i+3 ] = (byte) v; v >>>= 8;
-				out [ i+4 ] = (byte) v; v >>>= 8;
-				out [ i+5 ] = (byte) v; v >>>= 8;
-				out [ i+6 ] = (byte) v; v >>>= 8;
-				out [ i+7 ] = (byte) v;
+				writeLong( h [ w ], out, i );
 				i+=8;
 			}
 
 			// basta?
-			if( hashlen == Spec.max_digest_bytes) return;
+			if( (hashlen & 7) == 0 ) return;
 
 			// write the remaining bytes of a partial long value
 			v = h [ lcnt ];
@@ -559,1126 +2777,1348 @@ public interface Blake2b {
 		/// Compression Kernel /////////////////////////////////////////// BEGIN
 		////////////////////////////////////////////////////////////////////////
 
+		/**
+		 * compress n (non-final) blocks of b, from offset. The byte counter is
+		 * kept in locals across blocks and written back to state once.
+		 */
+		private void compressBlocks (final byte[] b, int offset, final int blocks) {
+			final long[] s = state.s;
+			long t0 = s[ State.t0 ];
+			long t1 = s[ State.t1 ];
+			final Kernel kernel = this.kernel;
+			for (int i = 0; i < blocks; i++) {
+				t0 += Spec.block_bytes;
+				t1 += t0 == 0 ? 1 : 0;
+				kernel.compress( s, t0, t1, 0L, 0L, b, offset );
+				offset += Spec.block_bytes;
+			}
+			s[ State.t0 ] = t0;
+			s[ State.t1 ] = t1;
+		}
+
 		/** compress Spec.block_bytes data from b, from offset */
 		private void compress (final byte[] b, final int offset) {
+			final long[] s = state.s;
+			kernel.compress( s, s[ State.t0 ], s[ State.t1 ], s[ State.f0 ], s[ State.f1 ], b, offset );
+		}
 
-			// set m registers
-			final long[] m = state.m;
-			m[ 0] = LittleEndian.readLong(b, offset);
-			m[ 1] = LittleEndian.readLong(b, offset + 8);
-			m[ 2] = LittleEndian.readLong(b, offset + 16);
-			m[ 3] = LittleEndian.readLong(b, offset + 24);
-			m[ 4] = LittleEndian.readLong(b, offset + 32);
-			m[ 5] = LittleEndian.readLong(b, offset + 40);
-			m[ 6] = LittleEndian.readLong(b, offset + 48);
-			m[ 7] = LittleEndian.readLong(b, offset + 56);
-			m[ 8] = LittleEndian.readLong(b, offset + 64);
-			m[ 9] = LittleEndian.readLong(b, offset + 72);
-			m[10] = LittleEndian.readLong(b, offset + 80);
-			m[11] = LittleEndian.readLong(b, offset + 88);
-			m[12] = LittleEndian.readLong(b, offset + 96);
-			m[13] = LittleEndian.readLong(b, offset + 104);
-			m[14] = LittleEndian.readLong(b, offset + 112);
-			m[15] = LittleEndian.readLong(b, offset + 120);
-
-			// set v registers
-			final   long[]  v = state.v;
-			final   long[]  h = state.h;
-			final   long[]  t = state.t;
-			final   long[]  f = state.f;
-			v[ 0] = h[0];
-			v[ 1] = h[1];
-			v[ 2] = h[2];
-			v[ 3] = h[3];
-			v[ 4] = h[4];
-			v[ 5] = h[5];
-			v[ 6] = h[6];
-			v[ 7] = h[7];
-			v[ 8] =         0x6a09e667f3bcc908L;
-			v[ 9] =         0xbb67ae8584caa73bL;
-			v[10] =         0x3c6ef372fe94f82bL;
-			v[11] =         0xa54ff53a5f1d36f1L;
-			v[12] = t [0] ^ 0x510e527fade682d1L;
-			v[13] = t [1] ^ 0x9b05688c2b3e6c1fL;
-			v[14] = f [0] ^ 0x1f83d9abfb41bd6bL;
-			v[15] = f [1] ^ 0x5be0cd19137e2179L;
-
-			// do the rounds
-			round_0(v, m);
-			round_1(v, m);
-			round_2(v, m);
-			round_3(v, m);
-			round_4(v, m);
-			round_5(v, m);
-			round_6(v, m);
-			round_7(v, m);
-			round_8(v, m);
-			round_9(v, m);
-			round_0(v, m); // round 10 is identical to round 0
-			round_1(v, m); // round 11 is identical to round 1
+		/**
+		 * Register resident compression kernel. The working (v) and message (m)
+		 * words are held in locals for all 12 rounds and h is written back once
+		 * at the end.
+		 * <br>
+		 * The rounds are split across two methods, as a single method with all
+		 * 12 rounds exceeds HotSpot's 8000 byte (HugeMethodLimit) JIT limit.
+		 */
+		static void compress (final long[] h,
+				final long t0, final long t1, final long f0, final long f1,
+				final long m0, final long m1, final long m2, final long m3,
+				final long m4, final long m5, final long m6, final long m7,
+				final long m8, final long m9, final long m10, final long m11,
+				final long m12, final long m13, final long m14, final long m15) {
+			long v0 = h[0];
+			long v1 = h[1];
+			long v2 = h[2];
+			long v3 = h[3];
+			long v4 = h[4];
+			long v5 = h[5];
+			long v6 = h[6];
+			long v7 = h[7];
+			long v8 =       0x6a09e667f3bcc908L;
+			long v9 =       0xbb67ae8584caa73bL;
+			long v10 =      0x3c6ef372fe94f82bL;
+			long v11 =      0xa54ff53a5f1d36f1L;
+			long v12 = t0 ^ 0x510e527fade682d1L;
+			long v13 = t1 ^ 0x9b05688c2b3e6c1fL;
+			long v14 = f0 ^ 0x1f83d9abfb41bd6bL;
+			long v15 = f1 ^ 0x5be0cd19137e2179L;
+
+			// round 0
+			v0 = v0 + v4 + m0;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m1;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m2;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m3;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m4;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m5;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m6;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m7;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m8;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m9;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m10;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m11;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m12;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m13;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m14;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m15;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			// round 1
+			v0 = v0 + v4 + m14;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m10;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m4;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m8;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m9;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m15;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m13;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m6;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m1;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m12;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m0;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m2;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m11;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m7;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m5;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m3;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			// round 2
+			v0 = v0 + v4 + m11;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m8;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m12;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m0;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m5;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m2;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m15;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m13;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m10;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m14;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m3;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m6;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m7;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m1;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m9;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m4;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			// round 3
+			v0 = v0 + v4 + m7;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m9;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m3;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m1;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m13;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m12;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m11;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m14;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m2;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m6;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m5;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m10;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m4;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m0;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m15;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m8;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			// round 4
+			v0 = v0 + v4 + m9;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m0;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m5;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m7;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m2;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m4;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m10;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m15;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m14;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m1;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m11;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m12;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m6;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m8;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m3;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m13;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			// round 5
+			v0 = v0 + v4 + m2;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m12;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m6;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m10;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m0;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m11;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m8;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m3;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m4;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m13;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m7;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m5;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m15;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m14;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m1;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m9;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			rounds_6_11 (h,
+				v0, v1, v2, v3, v4, v5, v6, v7, v8, v9, v10, v11, v12, v13, v14, v15,
+				m0, m1, m2, m3, m4, m5, m6, m7, m8, m9, m10, m11, m12, m13, m14, m15);
+		}
+		/** second half of the register resident kernel: rounds 6 - 11 and h update */
+		private static void rounds_6_11 (final long[] h,
+				long v0, long v1, long v2, long v3,
+				long v4, long v5, long v6, long v7,
+				long v8, long v9, long v10, long v11,
+				long v12, long v13, long v14, long v15,
+				final long m0, final long m1, final long m2, final long m3,
+				final long m4, final long m5, final long m6, final long m7,
+				final long m8, final long m9, final long m10, final long m11,
+				final long m12, final long m13, final long m14, final long m15) {
+			// round 6
+			v0 = v0 + v4 + m12;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m5;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m1;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m15;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m14;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m13;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m4;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m10;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m0;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m7;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m6;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m3;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m9;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m2;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m8;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m11;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			// round 7
+			v0 = v0 + v4 + m13;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m11;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m7;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m14;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m12;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m1;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m3;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m9;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m5;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m0;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m15;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m4;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m8;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m6;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m2;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m10;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			// round 8
+			v0 = v0 + v4 + m6;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m15;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m14;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m9;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m11;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m3;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m0;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m8;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m12;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m2;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m13;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m7;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m1;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m4;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m10;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m5;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			// round 9
+			v0 = v0 + v4 + m10;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m2;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m8;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m4;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m7;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m6;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m1;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m5;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m15;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m11;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m9;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m14;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m3;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m12;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m13;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m0;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			// round 10 (identical to round 0)
+			v0 = v0 + v4 + m0;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m1;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m2;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m3;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m4;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m5;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m6;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m7;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m8;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m9;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m10;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m11;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m12;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m13;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m14;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m15;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			// round 11 (identical to round 1)
+			v0 = v0 + v4 + m14;
+			v12 ^= v0;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v0 = v0 + v4 + m10;
+			v12 ^= v0;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v8 = v8 + v12;
+			v4 ^= v8;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
+
+			v1 = v1 + v5 + m4;
+			v13 ^= v1;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v1 = v1 + v5 + m8;
+			v13 ^= v1;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v9 = v9 + v13;
+			v5 ^= v9;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v2 = v2 + v6 + m9;
+			v14 ^= v2;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v2 = v2 + v6 + m15;
+			v14 ^= v2;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v10 = v10 + v14;
+			v6 ^= v10;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v3 = v3 + v7 + m13;
+			v15 ^= v3;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v3 = v3 + v7 + m6;
+			v15 ^= v3;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v11 = v11 + v15;
+			v7 ^= v11;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v0 = v0 + v5 + m1;
+			v15 ^= v0;
+			v15 = ( v15 << 32 ) | ( v15 >>> 32 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 >>> 24 ) | ( v5 << 40 );
+			v0 = v0 + v5 + m12;
+			v15 ^= v0;
+			v15 = ( v15 >>> 16 ) | ( v15 << 48 );
+			v10 = v10 + v15;
+			v5 ^= v10;
+			v5 = ( v5 << 1 ) | ( v5 >>> 63 );
+
+			v1 = v1 + v6 + m0;
+			v12 ^= v1;
+			v12 = ( v12 << 32 ) | ( v12 >>> 32 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 >>> 24 ) | ( v6 << 40 );
+			v1 = v1 + v6 + m2;
+			v12 ^= v1;
+			v12 = ( v12 >>> 16 ) | ( v12 << 48 );
+			v11 = v11 + v12;
+			v6 ^= v11;
+			v6 = ( v6 << 1 ) | ( v6 >>> 63 );
+
+			v2 = v2 + v7 + m11;
+			v13 ^= v2;
+			v13 = ( v13 << 32 ) | ( v13 >>> 32 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 >>> 24 ) | ( v7 << 40 );
+			v2 = v2 + v7 + m7;
+			v13 ^= v2;
+			v13 = ( v13 >>> 16 ) | ( v13 << 48 );
+			v8 = v8 + v13;
+			v7 ^= v8;
+			v7 = ( v7 << 1 ) | ( v7 >>> 63 );
+
+			v3 = v3 + v4 + m5;
+			v14 ^= v3;
+			v14 = ( v14 << 32 ) | ( v14 >>> 32 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 >>> 24 ) | ( v4 << 40 );
+			v3 = v3 + v4 + m3;
+			v14 ^= v3;
+			v14 = ( v14 >>> 16 ) | ( v14 << 48 );
+			v9 = v9 + v14;
+			v4 ^= v9;
+			v4 = ( v4 << 1 ) | ( v4 >>> 63 );
 
 			// Update state vector h
-			h[0] ^= v[0] ^ v[8];
-			h[1] ^= v[1] ^ v[9];
-			h[2] ^= v[2] ^ v[10];
-			h[3] ^= v[3] ^ v[11];
-			h[4] ^= v[4] ^ v[12];
-			h[5] ^= v[5] ^ v[13];
-			h[6] ^= v[6] ^ v[14];
-			h[7] ^= v[7] ^ v[15];
+			h[0] ^= v0 ^ v8;
+			h[1] ^= v1 ^ v9;
+			h[2] ^= v2 ^ v10;
+			h[3] ^= v3 ^ v11;
+			h[4] ^= v4 ^ v12;
+			h[5] ^= v5 ^ v13;
+			h[6] ^= v6 ^ v14;
+			h[7] ^= v7 ^ v15;
 
 			/* kaamil */
 		}
-		private void round_0(final long[] v, final long[] m) {
-			v[ 0] = v[ 0] + v[ 4] + m[0];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 0] = v[ 0] + v[ 4] + m [1];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 5] + m[2];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 1] = v[ 1] + v[ 5] + m[3];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 6] + m[4];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 2] = v[ 2] + v[ 6] + m[5];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 7] + m[6];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 3] = v[ 3] + v[ 7] + m[7];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 0] = v[ 0] + v[ 5] + m[8];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 0] = v[ 0] + v[ 5] + m[9];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 6] + m[10];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 1] = v[ 1] + v[ 6] + + m[11];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 7] + m[12];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 2] = v[ 2] + v[ 7] + m[13];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 4] + m[14];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 3] = v[ 3] + v[ 4] + m[15];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-		}
-		private void round_1(final long[] v, final long[] m) {
-			v[ 0] = v[ 0] + v[ 4] + m[14];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 0] = v[ 0] + v[ 4] + m [10];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 5] + m[4];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 1] = v[ 1] + v[ 5] + m[8];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 6] + m[9];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 2] = v[ 2] + v[ 6] + m[15];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 7] + m[13];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 3] = v[ 3] + v[ 7] + m[6];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 0] = v[ 0] + v[ 5] + m[1];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 0] = v[ 0] + v[ 5] + m[12];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 6] + m[0];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 1] = v[ 1] + v[ 6] + + m[2];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 7] + m[11];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 2] = v[ 2] + v[ 7] + m[7];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 4] + m[5];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 3] = v[ 3] + v[ 4] + m[3];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-		}
-		private void round_2(final long[] v, final long[] m) {
-			v[ 0] = v[ 0] + v[ 4] + m[11];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 0] = v[ 0] + v[ 4] + m [8];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 5] + m[12];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 1] = v[ 1] + v[ 5] + m[0];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 6] + m[5];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 2] = v[ 2] + v[ 6] + m[2];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 7] + m[15];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 3] = v[ 3] + v[ 7] + m[13];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 0] = v[ 0] + v[ 5] + m[10];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 0] = v[ 0] + v[ 5] + m[14];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 6] + m[3];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 1] = v[ 1] + v[ 6] + + m[6];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 7] + m[7];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 2] = v[ 2] + v[ 7] + m[1];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 4] + m[9];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 3] = v[ 3] + v[ 4] + m[4];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-		}
-		private void round_3(final long[] v, final long[] m) {
-			v[ 0] = v[ 0] + v[ 4] + m[7];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 0] = v[ 0] + v[ 4] + m [9];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 5] + m[3];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 1] = v[ 1] + v[ 5] + m[1];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 6] + m[13];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 2] = v[ 2] + v[ 6] + m[12];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 7] + m[11];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 3] = v[ 3] + v[ 7] + m[14];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 0] = v[ 0] + v[ 5] + m[2];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 0] = v[ 0] + v[ 5] + m[6];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 6] + m[5];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 1] = v[ 1] + v[ 6] + + m[10];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 7] + m[4];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 2] = v[ 2] + v[ 7] + m[0];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 4] + m[15];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 3] = v[ 3] + v[ 4] + m[8];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-		}
-		private void round_4(final long[] v, final long[] m) {
-			v[ 0] = v[ 0] + v[ 4] + m[9];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 0] = v[ 0] + v[ 4] + m [0];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 5] + m[5];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 1] = v[ 1] + v[ 5] + m[7];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 6] + m[2];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 2] = v[ 2] + v[ 6] + m[4];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 7] + m[10];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 3] = v[ 3] + v[ 7] + m[15];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 0] = v[ 0] + v[ 5] + m[14];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 0] = v[ 0] + v[ 5] + m[1];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 6] + m[11];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 1] = v[ 1] + v[ 6] + + m[12];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 7] + m[6];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 2] = v[ 2] + v[ 7] + m[8];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 4] + m[3];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 3] = v[ 3] + v[ 4] + m[13];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-		}
-		private void round_5(final long[] v, final long[] m) {
-			v[ 0] = v[ 0] + v[ 4] + m[2];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 0] = v[ 0] + v[ 4] + m [12];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 5] + m[6];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 1] = v[ 1] + v[ 5] + m[10];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 6] + m[0];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 2] = v[ 2] + v[ 6] + m[11];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 7] + m[8];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 3] = v[ 3] + v[ 7] + m[3];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 0] = v[ 0] + v[ 5] + m[4];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 0] = v[ 0] + v[ 5] + m[13];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 6] + m[7];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 1] = v[ 1] + v[ 6] + + m[5];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 7] + m[15];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 2] = v[ 2] + v[ 7] + m[14];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 4] + m[1];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 3] = v[ 3] + v[ 4] + m[9];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-		}
-		private void round_6(final long[] v, final long[] m) {
-			v[ 0] = v[ 0] + v[ 4] + m[12];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 0] = v[ 0] + v[ 4] + m [5];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 5] + m[1];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 1] = v[ 1] + v[ 5] + m[15];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 6] + m[14];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 2] = v[ 2] + v[ 6] + m[13];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 7] + m[4];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 3] = v[ 3] + v[ 7] + m[10];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 0] = v[ 0] + v[ 5] + m[0];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 0] = v[ 0] + v[ 5] + m[7];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 6] + m[6];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 1] = v[ 1] + v[ 6] + + m[3];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 7] + m[9];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 2] = v[ 2] + v[ 7] + m[2];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 4] + m[8];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 3] = v[ 3] + v[ 4] + m[11];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-		}
-		private void round_7(final long[] v, final long[] m) {
-			v[ 0] = v[ 0] + v[ 4] + m[13];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 0] = v[ 0] + v[ 4] + m [11];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 5] + m[7];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 1] = v[ 1] + v[ 5] + m[14];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 6] + m[12];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 2] = v[ 2] + v[ 6] + m[1];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 7] + m[3];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 3] = v[ 3] + v[ 7] + m[9];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 0] = v[ 0] + v[ 5] + m[5];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 0] = v[ 0] + v[ 5] + m[0];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 6] + m[15];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 1] = v[ 1] + v[ 6] + + m[4];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 7] + m[8];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 2] = v[ 2] + v[ 7] + m[6];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 4] + m[2];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 3] = v[ 3] + v[ 4] + m[10];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-		}
-		private void round_8(final long[] v, final long[] m) {
-			v[ 0] = v[ 0] + v[ 4] + m[6];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 0] = v[ 0] + v[ 4] + m [15];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 5] + m[14];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 1] = v[ 1] + v[ 5] + m[9];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 6] + m[11];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 2] = v[ 2] + v[ 6] + m[3];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 7] + m[0];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 3] = v[ 3] + v[ 7] + m[8];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 0] = v[ 0] + v[ 5] + m[12];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 0] = v[ 0] + v[ 5] + m[2];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 6] + m[13];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 1] = v[ 1] + v[ 6] + + m[7];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 7] + m[1];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 2] = v[ 2] + v[ 7] + m[4];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 4] + m[10];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 3] = v[ 3] + v[ 4] + m[5];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-		}
-		private void round_9(final long[] v, final long[] m) {
-			v[ 0] = v[ 0] + v[ 4] + m[10];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 0] = v[ 0] + v[ 4] + m [2];
-			v[12] ^= v[ 0];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[ 8] = v[ 8] + v[12];
-			v[ 4] ^= v[ 8];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 5] + m[8];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 1] = v[ 1] + v[ 5] + m[4];
-			v[13] ^= v[ 1];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 9] = v[ 9] + v[13];
-			v[ 5] ^= v[ 9];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 6] + m[7];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 2] = v[ 2] + v[ 6] + m[6];
-			v[14] ^= v[ 2];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[10] = v[10] + v[14];
-			v[ 6] ^= v[10];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 7] + m[1];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 3] = v[ 3] + v[ 7] + m[5];
-			v[15] ^= v[ 3];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[11] = v[11] + v[15];
-			v[ 7] ^= v[11];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 0] = v[ 0] + v[ 5] + m[15];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] << 32 ) | ( v[15] >>> 32 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] >>> 24 ) | ( v[ 5] << 40 );
-			v[ 0] = v[ 0] + v[ 5] + m[11];
-			v[15] ^= v[ 0];
-			v[15] = ( v[15] >>> 16 ) | ( v[15] << 48 );
-			v[10] = v[10] + v[15];
-			v[ 5] ^= v[10];
-			v[ 5] = ( v[ 5] << 1 ) | ( v[ 5] >>> 63 );
-
-			v[ 1] = v[ 1] + v[ 6] + m[9];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] << 32 ) | ( v[12] >>> 32 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] >>> 24 ) | ( v[ 6] << 40 );
-			v[ 1] = v[ 1] + v[ 6] + + m[14];
-			v[12] ^= v[ 1];
-			v[12] = ( v[12] >>> 16 ) | ( v[12] << 48 );
-			v[11] = v[11] + v[12];
-			v[ 6] ^= v[11];
-			v[ 6] = ( v[ 6] << 1 ) | ( v[ 6] >>> 63 );
-
-			v[ 2] = v[ 2] + v[ 7] + m[3];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] << 32 ) | ( v[13] >>> 32 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] >>> 24 ) | ( v[ 7] << 40 );
-			v[ 2] = v[ 2] + v[ 7] + m[12];
-			v[13] ^= v[ 2];
-			v[13] = ( v[13] >>> 16 ) | ( v[13] << 48 );
-			v[ 8] = v[ 8] + v[13];
-			v[ 7] ^= v[ 8];
-			v[ 7] = ( v[ 7] << 1 ) | ( v[ 7] >>> 63 );
-
-			v[ 3] = v[ 3] + v[ 4] + m[13];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] << 32 ) | ( v[14] >>> 32 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] >>> 24 ) | ( v[ 4] << 40 );
-			v[ 3] = v[ 3] + v[ 4] + m[0];
-			v[14] ^= v[ 3];
-			v[14] = ( v[14] >>> 16 ) | ( v[14] << 48 );
-			v[ 9] = v[ 9] + v[14];
-			v[ 4] ^= v[ 9];
-			v[ 4] = ( v[ 4] << 1 ) | ( v[ 4] >>> 63 );
-		}
 
 		////////////////////////////////////////////////////////////////////////
 		/// Compression Kernel //////////////////////////////////////////// FINI
@@ -1688,9 +4128,9 @@ public interface Blake2b {
 		public static class Debug {
 			public static void dumpState (Blake2b.Engine e, final String mark) {
 				System.out.format("-- MARK == @ %s @ ===========\n", mark);
-				dumpArray("register t", e.state.t);
-				dumpArray("register h", e.state.h);
-				dumpArray("register f", e.state.f);
+				dumpArray("register t", Arrays.copyOfRange(e.state.s, State.t0, State.t0 + 2));
+				dumpArray("register h", Arrays.copyOfRange(e.state.s, 0, 8));
+				dumpArray("register f", Arrays.copyOfRange(e.state.s, State.f0, State.f0 + 2));
 				dumpArray("register offset", new long[]{e.state.buflen});
 				System.out.format("-- END MARK =================\n");
 			}
@@ -1748,16 +4188,54 @@ public interface Blake2b {
 		// ---------------------------------------------------------------------
 
 		public static class LittleEndian {
-			private static final byte[] hex_digits = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
-			private static final byte[] HEX_digits = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
-			/** @return hex rep of byte (lower case). */
+			/**
+			 * 8 byte word codec backing readLong and writeLong. On Java 9+ the
+			 * multi-release jar provides a VarHandle (byte[] view) codec that
+			 * loads/stores a word in one op (see src/main/java9); otherwise the
+			 * shift &amp; mask codec is used.
+			 */
+			static final Codec codec = Codec.newInstance();
+
+			/** shift &amp; mask codec; extended by VarHandleCodec (Java 9+) */
+			static class Codec {
+				static Codec newInstance () {
+					try {
+						return (Codec) Class.forName("ove.crypto.digest.VarHandleCodec").newInstance();
+					} catch (Throwable e) {
+						return new Codec();
+					}
+				}
+				long getLong (final byte[] b, final int off) {
+					long v0 = ((long)b [ off ] & 0xFF );
+					v0 |= ((long)b [ off + 1 ] & 0xFF ) <<  8;
+					v0 |= ((long)b [ off + 2 ] & 0xFF ) << 16;
+					v0 |= ((long)b [ off + 3 ] & 0xFF ) << 24;
+					v0 |= ((long)b [ off + 4 ] & 0xFF ) << 32;
+					v0 |= ((long)b [ off + 5 ] & 0xFF ) << 40;
+					v0 |= ((long)b [ off + 6 ] & 0xFF ) << 48;
+					return v0 | ((long)b [ off + 7 ] )  << 56;
+				}
+				void putLong (long v, final byte[] b, final int off) {
+					b [ off ]     = (byte) v; v >>>= 8;
+					b [ off + 1 ] = (byte) v; v >>>= 8;
+					b [ off + 2 ] = (byte) v; v >>>= 8;
+					b [ off + 3 ] = (byte) v; v >>>= 8;
+					b [ off + 4 ] = (byte) v; v >>>= 8;
+					b [ off + 5 ] = (byte) v; v >>>= 8;
+					b [ off + 6 ] = (byte) v; v >>>= 8;
+					b [ off + 7 ] = (byte) v;
+				}
+			}
+			private static final char[] hex_digits = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+			private static final char[] HEX_digits = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+			/** @return hex rep of byte (lower case). See also {@link Encoding#hex} */
 			static public String toHexStr (final byte[] b) {
 				return toHexStr (b, false); // because String class is slower.
 			}
 			static public String toHexStr (final byte[] b, boolean upperCase) {
 				final int len = b.length;
-				final byte[] digits = new byte[ len * 2 ];
-				final byte[] hex_rep = upperCase ? HEX_digits : hex_digits ;
+				final char[] digits = new char[ len * 2 ];
+				final char[] hex_rep = upperCase ? HEX_digits : hex_digits ;
 				for (int i = 0; i < len; i++) {
 					digits [ i*2   ] = hex_rep [ (byte) (b[i] >> 4 & 0x0F)  ];
 					digits [ i*2+1 ] = hex_rep [ (byte) (b[i]      & 0x0F) ];
@@ -1772,25 +4250,11 @@ public interface Blake2b {
 			}
 			/** Little endian - byte[] to long */
 			public static long readLong (final byte[] b, final int off) {
-				long v0 = ((long)b [ off ] & 0xFF );
-				v0 |= ((long)b [ off + 1 ] & 0xFF ) <<  8;
-				v0 |= ((long)b [ off + 2 ] & 0xFF ) << 16;
-				v0 |= ((long)b [ off + 3 ] & 0xFF ) << 24;
-				v0 |= ((long)b [ off + 4 ] & 0xFF ) << 32;
-				v0 |= ((long)b [ off + 5 ] & 0xFF ) << 40;
-				v0 |= ((long)b [ off + 6 ] & 0xFF ) << 48;
-				return v0 | ((long)b [ off + 7 ] )  << 56;
+				return codec.getLong (b, off);
 			}
 			/** Little endian - long to byte[] */
-			public static void writeLong (long v, final byte[] b, final int off) {
-				b [ off ]     = (byte) v; v >>>= 8;
-				b [ off + 1 ] = (byte) v; v >>>= 8;
-				b [ off + 2 ] = (byte) v; v >>>= 8;
-				b [ off + 3 ] = (byte) v; v >>>= 8;
-				b [ off + 4 ] = (byte) v; v >>>= 8;
-				b [ off + 5 ] = (byte) v; v >>>= 8;
-				b [ off + 6 ] = (byte) v; v >>>= 8;
-				b [ off + 7 ] = (byte) v;
+			public static void writeLong (final long v, final byte[] b, final int off) {
+				codec.putLong (v, b, off);
 			}
 			/** Little endian - int to byte[] */
 			public static void writeInt (int v, final byte[] b, final int off) {
@@ -1875,13 +4339,21 @@ public interface Blake2b {
 		private byte[] bytes = null;
 		/** */
 		private  final long[] h = new long [ Spec.state_space_len ];
+		/** see freeze */
+		private boolean frozen = false;
+		/** frozen and keyed: state vector after the key block (Kernel.active) */
+		private long[] key_h = null;
 
 		/** */
 		public Param() {
 			System.arraycopy( default_h, 0, h, 0, Spec.state_space_len );
 		}
-		/** */
+		/** @return (copy of) the initial state vector of this param */
 		public long[] initialized_H () {
+			return h.clone();
+		}
+		/** package only - initial state vector (no copy) - read only */
+		final long[] initialH () {
 			return h;
 		}
 		/** package only - copy returned - do not use in functional loops */
@@ -1935,11 +4407,99 @@ public interface Blake2b {
 
 		public final boolean hasKey() { return this.hasKey; }
 
+		/** package only - zero padded key block (no copy) - null if no key */
+		final byte[] getKeyBlock() { return this.key_bytes; }
+
+		// ---------------------------------------------------------------------
+		// frozen (immutable) params
+		// ---------------------------------------------------------------------
+		// A frozen Param can not be set, and so can be shared by engines and
+		// threads; a keyed frozen Param also carries the state after its key
+		// block, so engines of it skip that compress. Interned (canonical)
+		// Params are frozen.
+
+		/** max number of interned Params; beyond it intern returns a frozen copy */
+		static final int intern_capacity = 1024;
+		private static final ConcurrentMap<Param, Param> interned = new ConcurrentHashMap<Param, Param>();
+		private static final AtomicReferenceArray<Param> canonical = new AtomicReferenceArray<Param>( Spec.max_digest_bytes + 1 );
+
+		/** @return true if frozen */
+		public final boolean isFrozen() { return this.frozen; }
+
+		/** @return this, if frozen, or else a frozen copy of this Param */
+		public final Param freeze() {
+			if ( frozen ) return this;
+			final Param p = this.clone();
+			p.lazyInitBytes();
+			if ( p.hasKey ) {
+				p.key_h = Engine.midstate( p, Kernel.active, new long [ Spec.state_space_len ] );
+			}
+			p.frozen = true;
+			return p;
+		}
+
+		/** package only - frozen and keyed: state after the key block (no copy) */
+		final long[] getKeyMidstate() { return this.key_h; }
+
+		/**
+		 * Note the intern table holds its Params, and so the keys of keyed
+		 * Params, until the class is unloaded. Use freeze() for keys that must
+		 * not be retained.
+		 * @return the canonical frozen Param equal to p
+		 */
+		public static Param intern(final Param p) {
+			assert p != null : "param is null";
+			final Param known = interned.get( p );
+			if ( known != null ) return known;
+			final Param frozen = p.freeze();
+			if ( interned.size() >= intern_capacity ) return frozen;
+			final Param raced = interned.putIfAbsent( frozen, frozen );
+			return raced != null ? raced : frozen;
+		}
+
+		/** @return the canonical frozen default Param of digest length len */
+		public static Param canonical(final int len) {
+			assert len > 0 && len <= Spec.max_digest_bytes : assertFail("len", len, inclusiveUpperBound, Spec.max_digest_bytes);
+			Param p = canonical.get( len );
+			if ( p == null ) {
+				p = intern( new Param().setDigestLength( len ) );
+				canonical.compareAndSet( len, null, p );
+			}
+			return p;
+		}
+
+		private void assertMutable() {
+			if ( frozen ) throw new IllegalStateException( "param is frozen" );
+		}
+
+		/** Params are equal if their parameter blocks and keys are */
+		@Override public boolean equals(final Object o) {
+			if ( o == this ) return true;
+			if ( !(o instanceof Param) ) return false;
+			final Param p = (Param) o;
+			if ( !Arrays.equals( this.h, p.h ) || this.hasKey != p.hasKey ) return false;
+			return !hasKey || MessageDigest.isEqual( this.key_bytes, p.key_bytes );
+		}
+
+		/**
+		 * hash of the parameter block and, if keyed, of the state after the
+		 * key block (one-way, so the hash does not reveal the key bits)
+		 */
+		@Override public int hashCode() {
+			final int hash = Arrays.hashCode( h );
+			if ( !hasKey ) return hash;
+			final long[] kh = frozen ? key_h : Engine.midstate( this, Kernel.active, new long [ Spec.state_space_len ] );
+			return 31 * hash + Arrays.hashCode( kh );
+		}
+
+		/** @return a (mutable) copy of this Param */
 		@Override public Param clone() {
 			final Param clone = new Param();
 			System.arraycopy(this.h, 0, clone.h, 0, h.length);
-			clone.lazyInitBytes();
-			System.arraycopy(this.bytes, 0, clone.bytes, 0, this.bytes.length);
+			if(this.bytes != null) {
+				clone.lazyInitBytes();
+				System.arraycopy(this.bytes, 0, clone.bytes, 0, this.bytes.length);
+			}
 
 			if(this.hasKey){
 				clone.hasKey = this.hasKey;
@@ -1959,6 +4519,7 @@ public interface Blake2b {
 		}
 		/* 0-7 inclusive */
 		public final Param setDigestLength(int len) {
+			assertMutable();
 			assert len > 0 : assertFail("len", len, exclusiveLowerBound, 0);
 			assert len <= Spec.max_digest_bytes : assertFail("len", len, inclusiveUpperBound, Spec.max_digest_bytes);
 
@@ -1976,12 +4537,17 @@ public interface Blake2b {
 			return this.setKey(keybytes);
 		}
 		public final Param setKey (final byte[] key) {
+			assertMutable();
 			assert key != null : "key is null";
 			assert key.length > 0 : assertFail("key.length", key.length, inclusiveUpperBound, 0);
 			assert key.length <= Spec.max_key_bytes : assertFail("key.length", key.length, inclusiveUpperBound, Spec.max_key_bytes);
 
 			// zeropad keybytes
-			this.key_bytes = new byte [Spec.max_key_bytes * 2];
+			if ( this.key_bytes == null ) {
+				this.key_bytes = new byte [Spec.max_key_bytes * 2];
+			} else {
+				Arrays.fill ( this.key_bytes, (byte) 0 );
+			}
 			System.arraycopy ( key, 0, this.key_bytes, 0, key.length );
 			lazyInitBytes();
 			bytes[ Xoff.key_length ] = (byte) key.length; // checked c ref; this is correct
@@ -1991,6 +4557,7 @@ public interface Blake2b {
 			return this;
 		}
 		public final Param setFanout(int fanout) {
+			assertMutable();
 			assert fanout > 0 : assertFail("fanout", fanout, exclusiveLowerBound, 0);
 
 			lazyInitBytes();
@@ -2000,6 +4567,7 @@ public interface Blake2b {
 			return this;
 		}
 		public final Param setDepth(int depth) {
+			assertMutable();
 			assert depth > 0 : assertFail("depth", depth, exclusiveLowerBound, 0);
 
 			lazyInitBytes();
@@ -2009,6 +4577,7 @@ public interface Blake2b {
 			return this;
 		}
 		public final Param setLeafLength(int leaf_length) {
+			assertMutable();
 			assert leaf_length >= 0 : assertFail("leaf_length", leaf_length, inclusiveLowerBound, 0);
 
 			lazyInitBytes();
@@ -2020,6 +4589,7 @@ public interface Blake2b {
 
 		/* 8-15 inclusive */
 		public final Param setNodeOffset(long node_offset) {
+			assertMutable();
 			assert node_offset >= 0 : assertFail("node_offset", node_offset, inclusiveLowerBound, 0);
 
 			lazyInitBytes();
@@ -2031,6 +4601,7 @@ public interface Blake2b {
 
 		/* 16-23 inclusive */
 		public final Param setNodeDepth(int node_depth) {
+			assertMutable();
 			assert node_depth >= 0 : assertFail("node_depth", node_depth, inclusiveLowerBound, 0);
 
 			lazyInitBytes();
@@ -2042,6 +4613,7 @@ public interface Blake2b {
 			return this;
 		}
 		public final Param setInnerLength(int inner_length) {
+			assertMutable();
 			assert inner_length >= 0 : assertFail("inner_length", inner_length, inclusiveLowerBound, 0);
 
 			lazyInitBytes();
@@ -2057,6 +4629,7 @@ public interface Blake2b {
 
 		/* 32-47 inclusive */
 		public final Param setSalt(final byte[] salt) {
+			assertMutable();
 			assert salt != null : "salt is null";
 			assert salt.length <= Spec.max_salt_bytes : assertFail("salt.length", salt.length, inclusiveUpperBound, Spec.max_salt_bytes);
 
@@ -2072,6 +4645,7 @@ public interface Blake2b {
 
 		/* 48-63 inclusive */
 		public final Param setPersonal(byte[] personal) {
+			assertMutable();
 			assert personal != null : "personal is null";
 			assert personal.length <= Spec.max_personalization_bytes : assertFail("personal.length", personal.length, inclusiveUpperBound, Spec.max_personalization_bytes);
 
@@ -0,0 +1,209 @@
+/* !!! Doost !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import ove.alphazero.util.CmdLineArgs;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compares the compression kernels (e.g. unrolled vs. compact) hashing small
+ * messages, in isolation and interleaved with unrelated hot code that
+ * competes for code cache, i-cache and inlining budget.
+ * <br>
+ * For a constrained code cache run with e.g. -XX:ReservedCodeCacheSize=8m.
+ */
+// REVU: let's keep the jar minimal. (TODO) move to a child project.
+public class KernelBench {
+
+	interface Default {
+		int size = 64;   // bytes per message
+		int seconds = 3; // per measurement
+	}
+
+	static class Usage {
+		private static void explain (final String opt, final String optfmt, Object ... args) {
+			final String fmtstr = String.format("%3s\t%s\n", opt, optfmt);
+			System.out.format(fmtstr, args);
+		}
+		static int usage () {
+			System.out.println("usage: java [-XX:ReservedCodeCacheSize=..] -cp .. ove.crypto.digest.KernelBench [options]");
+			System.out.println("[options]");
+			explain ("-n",  "message size in bytes. default: %d", Default.size);
+			explain ("-t",  "seconds per measurement. default: %d", Default.seconds);
+			explain ("--pressure",  "interleave hashing with unrelated hot code");
+			return -1;
+		}
+	}
+
+	public static void main (final String... args) {
+		final CmdLineArgs clargs = CmdLineArgs.parse(null, args);
+		if (clargs.isUsage()) {
+			System.exit(Usage.usage());
+		}
+		final int size;
+		final int seconds;
+		final boolean pressure;
+		try {
+			size = clargs.getIntOption("n", Default.size);
+			seconds = clargs.getIntOption("t", Default.seconds);
+			pressure = clargs.checkFlag("pressure");
+		} catch (Throwable e) {
+			System.exit(Usage.usage());
+			return;
+		}
+
+		System.out.format("active kernel: %s\n\n", Blake2b.Kernel.active());
+		System.out.println("kernel     | mode      | size (B/msg) | dt (nsec/msg) | throughput (MB/sec)");
+		final byte[] msg = new byte [ size ];
+		new Random(0).nextBytes( msg );
+		final List<Blake2b.Kernel> kernels = Blake2b.Kernel.available();
+		kernels.add(Blake2b.Kernel.compact());
+		for (final Blake2b.Kernel kernel : kernels) {
+			final Blake2b digest = Blake2b.Digest.newInstance(new Blake2b.Param(), kernel);
+			run (digest, msg, seconds, null);    // warm up
+			report (kernel, "isolated", size, run (digest, msg, seconds, null));
+			if (pressure) {
+				report (kernel, "pressure", size, run (digest, msg, seconds, Noise.all));
+			}
+		}
+	}
+
+	private static void report (final Blake2b.Kernel kernel, final String mode, final int size, final double nsec) {
+		System.out.format("%-10s | %-9s | %12d | %13.1f | %19.3f\n", kernel, mode, size, nsec, size * 1000.0 / nsec);
+	}
+
+	/** number of messages hashed between noise steps */
+	private static final int burst = 16;
+
+	/** @return nsec per message, timing only the hashing (noise may be null) */
+	private static double run (final Blake2b digest, final byte[] msg, final int seconds, final Noise[] noise) {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		long hashing = 0;
+		long msgs = 0;
+		int n = 0;
+		while (System.nanoTime() < deadline) {
+			if (noise != null) {
+				noise[n++ % noise.length].run();
+			}
+			final long start = System.nanoTime();
+			for (int i = 0; i < burst; i++) {
+				digest.update(msg, 0, msg.length);
+				digest.digest();
+			}
+			hashing += System.nanoTime() - start;
+			msgs += burst;
+		}
+		return (double) hashing / msgs;
+	}
+
+	// ---------------------------------------------------------------------
+	// unrelated hot code
+	// ---------------------------------------------------------------------
+
+	/** a unit of unrelated work, exercising distinct (JDK) code paths */
+	static abstract class Noise {
+		static int sink;
+		abstract void run ();
+
+		static final Noise[] all = {
+			new Noise() {
+				final Pattern p = Pattern.compile("([a-z]+)-(\\d{2,4})\\.(?:json|xml)");
+				@Override void run () {
+					final Matcher m = p.matcher("prefix some-1234.json and other-77.xml suffix");
+					while (m.find()) sink += m.group(1).length();
+				}
+			},
+			new Noise() {
+				@Override void run () {
+					sink += String.format("%s:%08x:%.3f", "noise", sink, sink / 7.0).length();
+				}
+			},
+			new Noise() {
+				final BigInteger m = BigInteger.valueOf(1000003).multiply(BigInteger.valueOf(999983));
+				@Override void run () {
+					sink += BigInteger.valueOf(sink | 3).modPow(BigInteger.valueOf(65537), m).bitLength();
+				}
+			},
+			new Noise() {
+				final TreeMap<String, Integer> map = new TreeMap<String, Integer>();
+				@Override void run () {
+					for (int i = 0; i < 32; i++) map.put("k" + ((sink + i) & 255), i);
+					sink += map.firstKey().length() + map.size();
+				}
+			},
+			new Noise() {
+				final Map<Integer, String> map = new HashMap<Integer, String>();
+				@Override void run () {
+					for (int i = 0; i < 32; i++) map.put(sink + i, Integer.toHexString(i));
+					if (map.size() > 4096) map.clear();
+					sink += map.size();
+				}
+			},
+			new Noise() {
+				final MessageDigest md = Bench.silentGet("SHA-256");
+				final byte[] b = new byte [ 256 ];
+				@Override void run () {
+					sink += md.digest(b)[0];
+				}
+			},
+			new Noise() {
+				final CRC32 crc = new CRC32();
+				final Deflater deflater = new Deflater();
+				final byte[] in = "the quick brown fox jumps over the lazy dog. ".getBytes();
+				final byte[] out = new byte [ 256 ];
+				@Override void run () {
+					crc.update(in, 0, in.length);
+					deflater.reset();
+					deflater.setInput(in);
+					deflater.finish();
+					sink += deflater.deflate(out) + (int) crc.getValue();
+				}
+			},
+			new Noise() {
+				final int[] a = new int [ 256 ];
+				@Override void run () {
+					for (int i = 0; i < a.length; i++) a[i] = (sink + i) * 0x9E3779B9;
+					Arrays.sort(a);
+					sink += a[0];
+				}
+			},
+			new Noise() {
+				@Override void run () {
+					final StringBuilder sb = new StringBuilder();
+					for (int i = 0; i < 16; i++) sb.append(i).append(',');
+					sink += sb.reverse().toString().hashCode();
+				}
+			},
+		};
+	}
+}
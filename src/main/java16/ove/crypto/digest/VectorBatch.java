@@ -0,0 +1,285 @@
+/* !!! Doost !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import java.util.Arrays;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.ROR;
+import static jdk.incubator.vector.VectorOperators.XOR;
+import static ove.crypto.digest.Blake2b.Engine.LittleEndian.readLong;
+import static ove.crypto.digest.Blake2b.Engine.LittleEndian.writeLong;
+
+/**
+ * Java 16+ (jdk.incubator.vector) multi-buffer batch hash. Messages are
+ * hashed n (4 or 8, per preferred species) at a time, in transposed form:
+ * vector v[i] holds working word i of each of the n message states, so the
+ * G steps are plain lane-wise ops with no shuffles.
+ * <br>
+ * Each lane runs its message's own block count; in block k, lanes whose
+ * message has fewer than k + 1 blocks are masked out of the h update. The
+ * counter and final block (and last node) flags are per lane.
+ * <br>
+ * Loaded reflectively by Blake2b.Batch.
+ */
+final class VectorBatch extends Blake2b.Batch.Impl {
+	private static final VectorSpecies<Long> S = LongVector.SPECIES_PREFERRED;
+
+	private static final long[] iv = Blake2b.Spec.IV;
+
+	/** SIGMA, with rounds 10 and 11 repeating rounds 0 and 1 */
+	private static final int[] sigma = {
+			 0,  1,  2,  3,  4,  5,  6,  7,  8,  9, 10, 11, 12, 13, 14, 15,
+			14, 10,  4,  8,  9, 15, 13,  6,  1, 12,  0,  2, 11,  7,  5,  3,
+			11,  8, 12,  0,  5,  2, 15, 13, 10, 14,  3,  6,  7,  1,  9,  4,
+			 7,  9,  3,  1, 13, 12, 11, 14,  2,  6,  5, 10,  4,  0, 15,  8,
+			 9,  0,  5,  7,  2,  4, 10, 15, 14,  1, 11, 12,  6,  8,  3, 13,
+			 2, 12,  6, 10,  0, 11,  8,  3,  4, 13,  7,  5, 15, 14,  1,  9,
+			12,  5,  1, 15, 14, 13,  4, 10,  0,  7,  6,  3,  9,  2,  8, 11,
+			13, 11,  7, 14, 12,  1,  3,  9,  5,  0, 15,  4,  8,  6,  2, 10,
+			 6, 15, 14,  9, 11,  3,  0,  8, 12,  2, 13,  7,  1,  4, 10,  5,
+			10,  2,  8,  4,  7,  6,  1,  5, 15, 11,  9, 14,  3, 12, 13,  0,
+			 0,  1,  2,  3,  4,  5,  6,  7,  8,  9, 10, 11, 12, 13, 14, 15,
+			14, 10,  4,  8,  9, 15, 13,  6,  1, 12,  0,  2, 11,  7,  5,  3,
+	};
+
+	VectorBatch () {
+		if ( S.length() < 4 ) {
+			throw new UnsupportedOperationException("no 256 bit vector support");
+		}
+	}
+
+	/** a and b in two lanes of one pass */
+	@Override void hash2 (final byte[] a, final byte[] b, final Blake2b.Param p, final byte[] outA, final byte[] outB) {
+		hash( new byte[][] { a, b }, 0, 2, p, new byte[][] { outA, outB } );
+	}
+
+	@Override void hash (final byte[][] inputs, final int from, final int to, final Blake2b.Param p, final byte[][] outs) {
+		final int n = S.length();
+		final int outlen = p.getDigestLength();
+		final byte[] key = p.hasKey() ? p.getKeyBlock() : null;
+		final long last_node = Blake2b.Engine.isLastNode(p) ? 0xFFFFFFFFFFFFFFFFL : 0L;
+		final long[] h0 = p.initialH();
+
+		// per lane scratch
+		final long[] m = new long [ 16 * n ];      // m[word * n + lane]
+		final long[] t = new long [ n ];
+		final long[] f0 = new long [ n ];
+		final long[] f1 = new long [ n ];
+		final long[] hs = new long [ 8 * n ];
+		final int[] blocks = new int [ n ];
+		final boolean[] active = new boolean [ n ];
+		final byte[] pad = new byte [ Blake2b.Spec.block_bytes ];
+
+		for (int base = from; base < to; base += n) {
+			final int lanes = Math.min(n, to - base);
+			int maxblocks = 0;
+			for (int j = 0; j < n; j++) {
+				if ( j < lanes ) {
+					final long total = (key != null ? Blake2b.Spec.block_bytes : 0) + (long) inputs[base + j].length;
+					blocks[j] = total == 0 ? 1 : (int) ((total + Blake2b.Spec.block_bytes - 1) / Blake2b.Spec.block_bytes);
+				} else {
+					blocks[j] = 0;
+				}
+				maxblocks = Math.max(maxblocks, blocks[j]);
+			}
+
+			LongVector h_0 = LongVector.broadcast(S, h0[0]);
+			LongVector h_1 = LongVector.broadcast(S, h0[1]);
+			LongVector h_2 = LongVector.broadcast(S, h0[2]);
+			LongVector h_3 = LongVector.broadcast(S, h0[3]);
+			LongVector h_4 = LongVector.broadcast(S, h0[4]);
+			LongVector h_5 = LongVector.broadcast(S, h0[5]);
+			LongVector h_6 = LongVector.broadcast(S, h0[6]);
+			LongVector h_7 = LongVector.broadcast(S, h0[7]);
+
+			for (int k = 0; k < maxblocks; k++) {
+				for (int j = 0; j < n; j++) {
+					active[j] = k < blocks[j];
+					if ( active[j] ) {
+						final boolean last = k == blocks[j] - 1;
+						final long total = (key != null ? Blake2b.Spec.block_bytes : 0) + (long) inputs[base + j].length;
+						t[j] = last ? total : (long) (k + 1) * Blake2b.Spec.block_bytes;
+						f0[j] = last ? 0xFFFFFFFFFFFFFFFFL : 0L;
+						f1[j] = last ? last_node : 0L;
+						loadBlock( m, n, j, key, inputs[base + j], k, pad );
+					}
+				}
+				final VectorMask<Long> mask = VectorMask.fromArray(S, active, 0);
+
+				LongVector v0 = h_0;
+				LongVector v1 = h_1;
+				LongVector v2 = h_2;
+				LongVector v3 = h_3;
+				LongVector v4 = h_4;
+				LongVector v5 = h_5;
+				LongVector v6 = h_6;
+				LongVector v7 = h_7;
+				LongVector v8 = LongVector.broadcast(S, iv[0]);
+				LongVector v9 = LongVector.broadcast(S, iv[1]);
+				LongVector v10 = LongVector.broadcast(S, iv[2]);
+				LongVector v11 = LongVector.broadcast(S, iv[3]);
+				LongVector v12 = LongVector.fromArray(S, t, 0).lanewise(XOR, iv[4]);
+				LongVector v13 = LongVector.broadcast(S, iv[5]);
+				LongVector v14 = LongVector.fromArray(S, f0, 0).lanewise(XOR, iv[6]);
+				LongVector v15 = LongVector.fromArray(S, f1, 0).lanewise(XOR, iv[7]);
+
+				final int[] s = sigma;
+				for (int x = 0; x < 12 * 16; x += 16) {
+					v0 = v0.add(v4).add(LongVector.fromArray(S, m, s[x + 0] * n));
+					v12 = v12.lanewise(XOR, v0).lanewise(ROR, 32);
+					v8 = v8.add(v12);
+					v4 = v4.lanewise(XOR, v8).lanewise(ROR, 24);
+					v0 = v0.add(v4).add(LongVector.fromArray(S, m, s[x + 1] * n));
+					v12 = v12.lanewise(XOR, v0).lanewise(ROR, 16);
+					v8 = v8.add(v12);
+					v4 = v4.lanewise(XOR, v8).lanewise(ROR, 63);
+
+					v1 = v1.add(v5).add(LongVector.fromArray(S, m, s[x + 2] * n));
+					v13 = v13.lanewise(XOR, v1).lanewise(ROR, 32);
+					v9 = v9.add(v13);
+					v5 = v5.lanewise(XOR, v9).lanewise(ROR, 24);
+					v1 = v1.add(v5).add(LongVector.fromArray(S, m, s[x + 3] * n));
+					v13 = v13.lanewise(XOR, v1).lanewise(ROR, 16);
+					v9 = v9.add(v13);
+					v5 = v5.lanewise(XOR, v9).lanewise(ROR, 63);
+
+					v2 = v2.add(v6).add(LongVector.fromArray(S, m, s[x + 4] * n));
+					v14 = v14.lanewise(XOR, v2).lanewise(ROR, 32);
+					v10 = v10.add(v14);
+					v6 = v6.lanewise(XOR, v10).lanewise(ROR, 24);
+					v2 = v2.add(v6).add(LongVector.fromArray(S, m, s[x + 5] * n));
+					v14 = v14.lanewise(XOR, v2).lanewise(ROR, 16);
+					v10 = v10.add(v14);
+					v6 = v6.lanewise(XOR, v10).lanewise(ROR, 63);
+
+					v3 = v3.add(v7).add(LongVector.fromArray(S, m, s[x + 6] * n));
+					v15 = v15.lanewise(XOR, v3).lanewise(ROR, 32);
+					v11 = v11.add(v15);
+					v7 = v7.lanewise(XOR, v11).lanewise(ROR, 24);
+					v3 = v3.add(v7).add(LongVector.fromArray(S, m, s[x + 7] * n));
+					v15 = v15.lanewise(XOR, v3).lanewise(ROR, 16);
+					v11 = v11.add(v15);
+					v7 = v7.lanewise(XOR, v11).lanewise(ROR, 63);
+
+					v0 = v0.add(v5).add(LongVector.fromArray(S, m, s[x + 8] * n));
+					v15 = v15.lanewise(XOR, v0).lanewise(ROR, 32);
+					v10 = v10.add(v15);
+					v5 = v5.lanewise(XOR, v10).lanewise(ROR, 24);
+					v0 = v0.add(v5).add(LongVector.fromArray(S, m, s[x + 9] * n));
+					v15 = v15.lanewise(XOR, v0).lanewise(ROR, 16);
+					v10 = v10.add(v15);
+					v5 = v5.lanewise(XOR, v10).lanewise(ROR, 63);
+
+					v1 = v1.add(v6).add(LongVector.fromArray(S, m, s[x + 10] * n));
+					v12 = v12.lanewise(XOR, v1).lanewise(ROR, 32);
+					v11 = v11.add(v12);
+					v6 = v6.lanewise(XOR, v11).lanewise(ROR, 24);
+					v1 = v1.add(v6).add(LongVector.fromArray(S, m, s[x + 11] * n));
+					v12 = v12.lanewise(XOR, v1).lanewise(ROR, 16);
+					v11 = v11.add(v12);
+					v6 = v6.lanewise(XOR, v11).lanewise(ROR, 63);
+
+					v2 = v2.add(v7).add(LongVector.fromArray(S, m, s[x + 12] * n));
+					v13 = v13.lanewise(XOR, v2).lanewise(ROR, 32);
+					v8 = v8.add(v13);
+					v7 = v7.lanewise(XOR, v8).lanewise(ROR, 24);
+					v2 = v2.add(v7).add(LongVector.fromArray(S, m, s[x + 13] * n));
+					v13 = v13.lanewise(XOR, v2).lanewise(ROR, 16);
+					v8 = v8.add(v13);
+					v7 = v7.lanewise(XOR, v8).lanewise(ROR, 63);
+
+					v3 = v3.add(v4).add(LongVector.fromArray(S, m, s[x + 14] * n));
+					v14 = v14.lanewise(XOR, v3).lanewise(ROR, 32);
+					v9 = v9.add(v14);
+					v4 = v4.lanewise(XOR, v9).lanewise(ROR, 24);
+					v3 = v3.add(v4).add(LongVector.fromArray(S, m, s[x + 15] * n));
+					v14 = v14.lanewise(XOR, v3).lanewise(ROR, 16);
+					v9 = v9.add(v14);
+					v4 = v4.lanewise(XOR, v9).lanewise(ROR, 63);
+				}
+
+				h_0 = h_0.blend(h_0.lanewise(XOR, v0).lanewise(XOR, v8), mask);
+				h_1 = h_1.blend(h_1.lanewise(XOR, v1).lanewise(XOR, v9), mask);
+				h_2 = h_2.blend(h_2.lanewise(XOR, v2).lanewise(XOR, v10), mask);
+				h_3 = h_3.blend(h_3.lanewise(XOR, v3).lanewise(XOR, v11), mask);
+				h_4 = h_4.blend(h_4.lanewise(XOR, v4).lanewise(XOR, v12), mask);
+				h_5 = h_5.blend(h_5.lanewise(XOR, v5).lanewise(XOR, v13), mask);
+				h_6 = h_6.blend(h_6.lanewise(XOR, v6).lanewise(XOR, v14), mask);
+				h_7 = h_7.blend(h_7.lanewise(XOR, v7).lanewise(XOR, v15), mask);
+			}
+
+			h_0.intoArray(hs, 0);
+			h_1.intoArray(hs, n);
+			h_2.intoArray(hs, 2 * n);
+			h_3.intoArray(hs, 3 * n);
+			h_4.intoArray(hs, 4 * n);
+			h_5.intoArray(hs, 5 * n);
+			h_6.intoArray(hs, 6 * n);
+			h_7.intoArray(hs, 7 * n);
+			for (int j = 0; j < lanes; j++) {
+				hashout( hs, n, j, outs[base + j], outlen );
+			}
+		}
+	}
+
+	/** transpose block k of lane j's (key block +) input into m, zero padding a partial block */
+	private static void loadBlock (final long[] m, final int n, final int j,
+			final byte[] key, final byte[] in, int k, final byte[] pad) {
+		final byte[] b;
+		int off;
+		if ( key != null && k == 0 ) {
+			b = key;
+			off = 0;
+		} else {
+			if ( key != null ) k--;
+			off = k * Blake2b.Spec.block_bytes;
+			final int rem = in.length - off;
+			if ( rem >= Blake2b.Spec.block_bytes ) {
+				b = in;
+			} else {
+				Arrays.fill( pad, (byte) 0 );
+				System.arraycopy( in, off, pad, 0, rem );
+				b = pad;
+				off = 0;
+			}
+		}
+		for (int w = 0; w < 16; w++) {
+			m[ w * n + j ] = readLong( b, off + (w << 3) );
+		}
+	}
+
+	/** write lane j's h words out (truncated to outlen) */
+	private static void hashout (final long[] hs, final int n, final int j, final byte[] out, final int outlen) {
+		final int lcnt = outlen >>> 3;
+		for (int w = 0; w < lcnt; w++) {
+			writeLong( hs[ w * n + j ], out, w << 3 );
+		}
+		if ( lcnt < 8 ) {
+			long v = hs[ lcnt * n + j ];
+			for (int i = lcnt << 3; i < outlen; i++) {
+				out[ i ] = (byte) v; v >>>= 8;
+			}
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/* !!! Doost !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import java.nio.ByteBuffer;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.ROR;
+import static jdk.incubator.vector.VectorOperators.XOR;
+import static ove.crypto.digest.Blake2b.Engine.LittleEndian.readLong;
+
+/**
+ * Java 16+ (jdk.incubator.vector) single stream kernel. The 4x4 working
+ * matrix is held in four 256 bit row vectors a = v[0..3], b = v[4..7],
+ * c = v[8..11], d = v[12..15]: the column step runs the 4 column G on the
+ * rows as is and the diagonal step runs on the rows rotated by 1, 2 and 3
+ * lanes (and rotated back after).
+ * <br>
+ * Loaded reflectively by Blake2b.Kernel; construction fails (and the kernel
+ * is not a candidate) if the module is not present (--add-modules
+ * jdk.incubator.vector) or the platform has no 256 bit vectors.
+ */
+final class VectorKernel extends Blake2b.Kernel {
+	private static final VectorSpecies<Long> S = LongVector.SPECIES_256;
+
+	/** diagonalize / undiagonalize lane rotations */
+	private static final VectorShuffle<Long> rot1 = VectorShuffle.fromValues(S, 1, 2, 3, 0);
+	private static final VectorShuffle<Long> rot2 = VectorShuffle.fromValues(S, 2, 3, 0, 1);
+	private static final VectorShuffle<Long> rot3 = VectorShuffle.fromValues(S, 3, 0, 1, 2);
+
+	/** IV[0..7] */
+	private static final long[] iv = Blake2b.Spec.IV.clone();
+
+	/**
+	 * message word gather maps per round: column x, column y, diagonal x,
+	 * diagonal y (per SIGMA).
+	 */
+	private static final int[] sigma = {
+			 0,  2,  4,  6,    1,  3,  5,  7,    8, 10, 12, 14,    9, 11, 13, 15, // round 0
+			14,  4,  9, 13,   10,  8, 15,  6,    1,  0, 11,  5,   12,  2,  7,  3, // round 1
+			11, 12,  5, 15,    8,  0,  2, 13,   10,  3,  7,  9,   14,  6,  1,  4, // round 2
+			 7,  3, 13, 11,    9,  1, 12, 14,    2,  5,  4, 15,    6, 10,  0,  8, // round 3
+			 9,  5,  2, 10,    0,  7,  4, 15,   14, 11,  6,  3,    1, 12,  8, 13, // round 4
+			 2,  6,  0,  8,   12, 10, 11,  3,    4,  7, 15,  1,   13,  5, 14,  9, // round 5
+			12,  1, 14,  4,    5, 15, 13, 10,    0,  6,  9,  8,    7,  3,  2, 11, // round 6
+			13,  7, 12,  3,   11, 14,  1,  9,    5, 15,  8,  2,    0,  4,  6, 10, // round 7
+			 6, 14, 11,  0,   15,  9,  3,  8,   12, 13,  1, 10,    2,  7,  4,  5, // round 8
+			10,  8,  7,  1,    2,  4,  6,  5,   15,  9,  3, 13,   11, 14, 12,  0, // round 9
+			 0,  2,  4,  6,    1,  3,  5,  7,    8, 10, 12, 14,    9, 11, 13, 15, // round 10
+			14,  4,  9, 13,   10,  8, 15,  6,    1,  0, 11,  5,   12,  2,  7,  3, // round 11
+	};
+
+	/** per thread message (m[0..15]) and counter/flags (m[16..19]) scratch */
+	private static final ThreadLocal<long[]> scratch = new ThreadLocal<long[]>() {
+		@Override protected long[] initialValue() { return new long[ 20 ]; }
+	};
+
+	VectorKernel () {
+		if ( LongVector.SPECIES_PREFERRED.vectorBitSize() < S.vectorBitSize() ) {
+			throw new UnsupportedOperationException("no 256 bit vector support");
+		}
+	}
+
+	@Override public String name () { return "vector"; }
+
+	@Override void compress (final long[] h,
+			final long t0, final long t1, final long f0, final long f1,
+			final byte[] b, final int off) {
+		final long[] m = scratch.get();
+		for (int i = 0; i < 16; i++) {
+			m[ i ] = readLong(b, off + (i << 3));
+		}
+		rounds(h, t0, t1, f0, f1, m, 0, m);
+	}
+
+	/** message words are gathered from m in place */
+	@Override void compress (final long[] h,
+			final long t0, final long t1, final long f0, final long f1,
+			final long[] m, final int off) {
+		rounds(h, t0, t1, f0, f1, m, off, scratch.get());
+	}
+
+	@Override void compress (final long[] h,
+			final long t0, final long t1, final long f0, final long f1,
+			final ByteBuffer b, final int off) {
+		final long[] m = scratch.get();
+		for (int i = 0; i < 16; i++) {
+			m[ i ] = b.getLong(off + (i << 3));
+		}
+		rounds(h, t0, t1, f0, f1, m, 0, m);
+	}
+
+	/** the 12 rounds over h, with message words m[moff .. moff + 15]; c holds counter and flags at c[16..19] */
+	private static void rounds (final long[] h,
+			final long t0, final long t1, final long f0, final long f1,
+			final long[] m, final int moff, final long[] c) {
+		c[16] = t0;
+		c[17] = t1;
+		c[18] = f0;
+		c[19] = f1;
+
+		LongVector va = LongVector.fromArray(S, h, 0);
+		LongVector vb = LongVector.fromArray(S, h, 4);
+		LongVector vc = LongVector.fromArray(S, iv, 0);
+		LongVector vd = LongVector.fromArray(S, iv, 4).lanewise(XOR, LongVector.fromArray(S, c, 16));
+
+		for (int r = 0; r < 12; r++) {
+			final int x = r << 4;
+
+			// column step
+			va = va.add(vb).add(LongVector.fromArray(S, m, moff, sigma, x));
+			vd = vd.lanewise(XOR, va).lanewise(ROR, 32);
+			vc = vc.add(vd);
+			vb = vb.lanewise(XOR, vc).lanewise(ROR, 24);
+			va = va.add(vb).add(LongVector.fromArray(S, m, moff, sigma, x + 4));
+			vd = vd.lanewise(XOR, va).lanewise(ROR, 16);
+			vc = vc.add(vd);
+			vb = vb.lanewise(XOR, vc).lanewise(ROR, 63);
+
+			// diagonalize
+			vb = vb.rearrange(rot1);
+			vc = vc.rearrange(rot2);
+			vd = vd.rearrange(rot3);
+
+			// diagonal step
+			va = va.add(vb).add(LongVector.fromArray(S, m, moff, sigma, x + 8));
+			vd = vd.lanewise(XOR, va).lanewise(ROR, 32);
+			vc = vc.add(vd);
+			vb = vb.lanewise(XOR, vc).lanewise(ROR, 24);
+			va = va.add(vb).add(LongVector.fromArray(S, m, moff, sigma, x + 12));
+			vd = vd.lanewise(XOR, va).lanewise(ROR, 16);
+			vc = vc.add(vd);
+			vb = vb.lanewise(XOR, vc).lanewise(ROR, 63);
+
+			// undiagonalize
+			vb = vb.rearrange(rot3);
+			vc = vc.rearrange(rot2);
+			vd = vd.rearrange(rot1);
+		}
+
+		// Update state vector h
+		LongVector.fromArray(S, h, 0).lanewise(XOR, va).lanewise(XOR, vc).intoArray(h, 0);
+		LongVector.fromArray(S, h, 4).lanewise(XOR, vb).lanewise(XOR, vd).intoArray(h, 4);
+	}
+}
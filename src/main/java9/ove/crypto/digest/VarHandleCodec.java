@@ -0,0 +1,40 @@
+/* !!! Doost !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Java 9+ little endian codec: a byte[] view VarHandle loads (stores) a
+ * word in one (unaligned) op. Loaded reflectively by LittleEndian.Codec.
+ */
+final class VarHandleCodec extends Blake2b.Engine.LittleEndian.Codec {
+	private static final VarHandle LE_LONG =
+			MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	@Override long getLong (final byte[] b, final int off) {
+		return (long) LE_LONG.get(b, off);
+	}
+	@Override void putLong (final long v, final byte[] b, final int off) {
+		LE_LONG.set(b, off, v);
+	}
+}
@@ -0,0 +1,75 @@
+/* !!! Doost !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Java 9+ register resident kernel with block words loaded through a
+ * little endian byte[] view VarHandle (one load per word). Loaded
+ * reflectively by Blake2b.Kernel.
+ */
+final class VarHandleKernel extends Blake2b.Kernel {
+	private static final VarHandle LE_LONG =
+			MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	@Override public String name () { return "varhandle"; }
+
+	@Override void compress (final long[] h,
+			final long t0, final long t1, final long f0, final long f1,
+			final byte[] b, final int off) {
+		Blake2b.Engine.compress( h, t0, t1, f0, f1,
+				(long) LE_LONG.get(b, off),       (long) LE_LONG.get(b, off + 8),
+				(long) LE_LONG.get(b, off + 16),  (long) LE_LONG.get(b, off + 24),
+				(long) LE_LONG.get(b, off + 32),  (long) LE_LONG.get(b, off + 40),
+				(long) LE_LONG.get(b, off + 48),  (long) LE_LONG.get(b, off + 56),
+				(long) LE_LONG.get(b, off + 64),  (long) LE_LONG.get(b, off + 72),
+				(long) LE_LONG.get(b, off + 80),  (long) LE_LONG.get(b, off + 88),
+				(long) LE_LONG.get(b, off + 96),  (long) LE_LONG.get(b, off + 104),
+				(long) LE_LONG.get(b, off + 112), (long) LE_LONG.get(b, off + 120));
+	}
+
+	@Override void compress (final long[] h,
+			final long t0, final long t1, final long f0, final long f1,
+			final long[] m, final int off) {
+		Blake2b.Engine.compress( h, t0, t1, f0, f1,
+				m[ off ],      m[ off + 1 ],  m[ off + 2 ],  m[ off + 3 ],
+				m[ off + 4 ],  m[ off + 5 ],  m[ off + 6 ],  m[ off + 7 ],
+				m[ off + 8 ],  m[ off + 9 ],  m[ off + 10 ], m[ off + 11 ],
+				m[ off + 12 ], m[ off + 13 ], m[ off + 14 ], m[ off + 15 ]);
+	}
+
+	@Override void compress (final long[] h,
+			final long t0, final long t1, final long f0, final long f1,
+			final ByteBuffer b, final int off) {
+		Blake2b.Engine.compress( h, t0, t1, f0, f1,
+				b.getLong( off ),       b.getLong( off + 8 ),
+				b.getLong( off + 16 ),  b.getLong( off + 24 ),
+				b.getLong( off + 32 ),  b.getLong( off + 40 ),
+				b.getLong( off + 48 ),  b.getLong( off + 56 ),
+				b.getLong( off + 64 ),  b.getLong( off + 72 ),
+				b.getLong( off + 80 ),  b.getLong( off + 88 ),
+				b.getLong( off + 96 ),  b.getLong( off + 104 ),
+				b.getLong( off + 112 ), b.getLong( off + 120 ));
+	}
+}
@@ -0,0 +1,99 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** Blake2b.Batch (and hash2) output must be identical to that of Digest / Mac per input. */
+public class TestBatch {
+
+	/** inputs of unequal lengths - incl. 0 and block boundaries - and a count not a multiple of the lanes */
+	private static byte[][] newInputs () {
+		final int[] lens = { 0, 1, 127, 128, 129, 255, 256, 257, 1000, 3, 64, 4096, 0, 511, 512, 513, 7, 2049, 130 };
+		final byte[][] inputs = new byte [ lens.length ][];
+		for (int i = 0; i < lens.length; i++) {
+			inputs[i] = new byte [ lens[i] ];
+			deterministic.nextBytes( inputs[i] );
+		}
+		return inputs;
+	}
+
+	private static void check (final Blake2b.Param param) {
+		final byte[][] inputs = newInputs();
+		final byte[][] outs = new byte [ inputs.length ][];
+		Blake2b.Batch.hash( inputs, param, outs );
+		verify( inputs, param, outs, "batch digest" );
+
+		// the sequential path, regardless of runtime
+		final byte[][] sequential = new byte [ inputs.length ][ param.getDigestLength() ];
+		new Blake2b.Batch.Sequential().hash( inputs, 0, inputs.length, param, sequential );
+		verify( inputs, param, sequential, "sequential digest" );
+
+		// hash2 of pairs of unequal lengths, incl. identical inputs
+		final int n = inputs.length;
+		final byte[][] hash2 = new byte [ n ][ param.getDigestLength() ];
+		final byte[] same = new byte [ param.getDigestLength() ];
+		for (int i = 0; i < n; i++) {
+			Blake2b.Batch.hash2( inputs[i], inputs[n - 1 - i], param, hash2[i], same );
+			assertEquals( same, outs[n - 1 - i], eqFail("hash2 digest (len " + inputs[n - 1 - i].length + ")") );
+		}
+		verify( inputs, param, hash2, "hash2 digest" );
+
+		// and the sequential hash2
+		final Blake2b.Batch.Sequential seq = new Blake2b.Batch.Sequential();
+		for (int i = 0; i < n; i++) {
+			seq.hash2( inputs[i], inputs[n - 1 - i], param, hash2[i], same );
+			assertEquals( same, outs[n - 1 - i], eqFail("sequential hash2 digest (len " + inputs[n - 1 - i].length + ")") );
+		}
+		verify( inputs, param, hash2, "sequential hash2 digest" );
+	}
+
+	private static void verify (final byte[][] inputs, final Blake2b.Param param, final byte[][] outs, final String what) {
+		for (int i = 0; i < inputs.length; i++) {
+			final Blake2b digest = param.hasKey() ? Blake2b.Mac.newInstance(param) : Blake2b.Digest.newInstance(param);
+			assertEquals( outs[i], digest.digest(inputs[i]), eqFail(what + " (len " + inputs[i].length + ")") );
+		}
+	}
+
+	@Test public void testDefaultParam () {
+		logit(this, "testDefaultParam");
+		check( new Blake2b.Param() );
+	}
+
+	@Test public void testDigestLength () {
+		logit(this, "testDigestLength");
+		check( new Blake2b.Param().setDigestLength(20) );
+		check( new Blake2b.Param().setDigestLength(32) );
+	}
+
+	@Test public void testKeyedSaltedPersonal () {
+		logit(this, "testKeyedSaltedPersonal");
+		check( new Blake2b.Param().setKey(Blake2BTestUtils.Reference.getKATKey()).
+				setSalt(new byte[] { 1, 2, 3 }).setPersonal(new byte[] { 4, 5, 6 }).setDigestLength(48) );
+	}
+
+	@Test public void testTreeLastNode () {
+		logit(this, "testTreeLastNode");
+		check( new Blake2b.Param().setDepth(2).setFanout(2).setNodeOffset(1).setInnerLength(64) );
+	}
+}
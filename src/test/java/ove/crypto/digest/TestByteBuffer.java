@@ -0,0 +1,149 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** ByteBuffer update and digest must match the byte[] variants, for heap, sliced, direct and read only buffers. */
+public class TestByteBuffer {
+
+	private static ByteBuffer[] buffers (final byte[] b) {
+		final ByteBuffer direct = ByteBuffer.allocateDirect( b.length + 5 );
+		direct.position( 5 );
+		direct.put( b ).position( 5 );
+		final ByteBuffer sliced = ByteBuffer.allocate( b.length + 3 );
+		sliced.position( 3 );
+		sliced.put( b ).position( 3 );
+		return new ByteBuffer[] {
+				ByteBuffer.wrap( b ),
+				sliced.slice(),
+				direct,
+				ByteBuffer.wrap( b ).asReadOnlyBuffer(),
+		};
+	}
+
+	@Test public void testUpdate () {
+		logit(this, "testUpdate");
+		final byte[] input = new byte [ 600 ];
+		deterministic.nextBytes( input );
+		final byte[] prefix = Arrays.copyOf( input, 131 );
+		final Blake2b digest = Blake2b.Digest.newInstance();
+		final Blake2b reference = Blake2b.Digest.newInstance();
+		for (final int pre : new int[] { 0, 5, 128, 131 }) {
+			for (int len = 0; len <= input.length; len += 7) {
+				final byte[] b = Arrays.copyOf( input, len );
+				reference.update( prefix, 0, pre );
+				reference.update( b );
+				final byte[] expected = reference.digest();
+				for (final ByteBuffer buf : buffers( b )) {
+					final ByteOrder order = buf.order();
+					final int limit = buf.limit();
+					digest.update( prefix, 0, pre );
+					digest.update( buf );
+					assertEquals( buf.position(), limit, eqFail("position") );
+					assertEquals( buf.order(), order, "order restored" );
+					assertEquals( digest.digest(), expected, eqFail(buf + " prefix " + pre + ", len " + len) );
+				}
+			}
+		}
+	}
+
+	@Test public void testKernelsRead () throws NoSuchMethodException {
+		logit(this, "testKernelsRead");
+		final List<Blake2b.Kernel> kernels = Blake2b.Kernel.available();
+		kernels.add( Blake2b.Kernel.compact() );
+		for (final Blake2b.Kernel k : kernels) {
+			// blocks are read from the buffer, not via the default's byte[] copy
+			k.getClass().getDeclaredMethod( "compress", long[].class, long.class, long.class, long.class, long.class,
+					ByteBuffer.class, int.class );
+		}
+	}
+
+	@Test public void testKernel () {
+		logit(this, "testKernel");
+		final byte[] input = new byte [ 128 * 4 + 9 ];
+		deterministic.nextBytes( input );
+		final byte[] expected = Blake2b.Digest.newInstance().digest( input );
+		final Blake2b.Param param = new Blake2b.Param();
+		final List<Blake2b.Kernel> kernels = Blake2b.Kernel.available();
+		kernels.add( Blake2b.Kernel.compact() );
+		for (final ByteBuffer buf : buffers( input )) {
+			for (final Blake2b.Kernel k : kernels) {
+				final Blake2b engine = Blake2b.Digest.newInstance( param, k );
+				engine.update( buf.duplicate() );
+				assertEquals( engine.digest(), expected, eqFail(k + " " + buf) );
+			}
+
+			// whole blocks of direct buffers go to the engine's kernel
+			final TestUpdateWords.Counting kernel = new TestUpdateWords.Counting();
+			final Blake2b engine = Blake2b.Digest.newInstance( param, kernel );
+			engine.update( buf );
+			assertEquals( kernel.blocks, 4, eqFail("blocks " + buf) );
+			assertEquals( engine.digest(), expected, eqFail("counting " + buf) );
+		}
+	}
+
+	@Test public void testDigest () {
+		logit(this, "testDigest");
+		final byte[] input = new byte [ 300 ];
+		deterministic.nextBytes( input );
+		for (final int len : new int[] { 64, 20, 8 }) {
+			final Blake2b.Param param = new Blake2b.Param().setKey( "key".getBytes() ).setDigestLength( len );
+			final byte[] expected = Blake2b.Mac.newInstance(param).digest( input );
+			final Blake2b mac = Blake2b.Mac.newInstance(param);
+			for (final ByteBuffer out : new ByteBuffer[] { ByteBuffer.allocate( 70 ), ByteBuffer.allocateDirect( 70 ) }) {
+				out.position( 3 );
+				mac.update( input );
+				mac.digest( out );
+				assertEquals( out.position(), 3 + len, eqFail("position") );
+				final byte[] got = new byte [ len ];
+				out.position( 3 );
+				out.get( got );
+				assertEquals( got, expected, eqFail(out + " length " + len) );
+			}
+
+			// no room: the state is kept
+			mac.update( input );
+			try {
+				mac.digest( ByteBuffer.allocate( len - 1 ) );
+				assert false : "digest to a short buffer";
+			} catch (BufferOverflowException e) { }
+			assertEquals( mac.digest(), expected, eqFail("after overflow") );
+
+			// read only: the state is kept
+			mac.update( input );
+			try {
+				mac.digest( ByteBuffer.allocate( 70 ).asReadOnlyBuffer() );
+				assert false : "digest to a read only buffer";
+			} catch (ReadOnlyBufferException e) { }
+			assertEquals( mac.digest(), expected, eqFail("after read only") );
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** A copy of an engine must continue as the original would, independently of it. */
+public class TestCopy {
+
+	private static byte[] input () {
+		final byte[] input = new byte [ 1000 ];
+		deterministic.nextBytes( input );
+		return input;
+	}
+
+	/** prefix lengths at, and either side of, block boundaries */
+	private static final int[] prefixes = { 0, 1, 127, 128, 129, 256, 300 };
+
+	private static void assertForks (final Blake2b engine, final Blake2b reference, final byte[] input, final String info) {
+		for (final int prefix : prefixes) {
+			engine.reset();
+			engine.update( input, 0, prefix );
+			final Blake2b a = engine.copy();
+			final Blake2b b = engine.copy();
+			// diverge
+			a.update( input, prefix, 17 );
+			b.update( input, prefix, input.length - prefix );
+
+			reference.update( input, 0, prefix + 17 );
+			assertEquals( a.digest(), reference.digest(), eqFail(info + " copy a @ " + prefix) );
+			reference.update( input, 0, input.length );
+			assertEquals( b.digest(), reference.digest(), eqFail(info + " copy b @ " + prefix) );
+			// the original is unaffected
+			reference.update( input, 0, prefix );
+			assertEquals( engine.digest(), reference.digest(), eqFail(info + " original @ " + prefix) );
+		}
+	}
+
+	@Test public void testDigest () {
+		logit(this, "testDigest");
+		final Blake2b.Param param = new Blake2b.Param().setDigestLength( 40 ).setSalt( "salt".getBytes() );
+		assertForks( Blake2b.Digest.newInstance(param), Blake2b.Digest.newInstance(param), input(), "digest" );
+	}
+
+	@Test public void testMac () {
+		logit(this, "testMac");
+		final Blake2b.Param param = new Blake2b.Param().setKey( "key".getBytes() );
+		assertForks( Blake2b.Mac.newInstance(param), Blake2b.Mac.newInstance(param), input(), "mac" );
+	}
+
+	@Test public void testRetargetCopy () {
+		logit(this, "testRetargetCopy");
+		final byte[] input = input();
+		final Blake2b.Mac mac = Blake2b.Mac.newInstance( "key".getBytes() );
+		mac.setKey( "other key".getBytes() );   // mac now owns its param
+		final Blake2b.Mac copy = mac.copy();
+
+		// re-keying either must not affect the other
+		mac.setKey( "third key".getBytes() );
+		assertEquals( copy.digest(input), Blake2b.Mac.newInstance("other key".getBytes()).digest(input), eqFail("copy") );
+		copy.setKey( "fourth key".getBytes() );
+		assertEquals( mac.digest(input), Blake2b.Mac.newInstance("third key".getBytes()).digest(input), eqFail("original") );
+		assertEquals( copy.digest(input), Blake2b.Mac.newInstance("fourth key".getBytes()).digest(input), eqFail("copy re-keyed") );
+		assert !Arrays.equals( mac.digest(input), copy.digest(input) ) : "engines share state";
+	}
+}
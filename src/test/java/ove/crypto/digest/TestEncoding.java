@@ -0,0 +1,104 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** Digest text encodings: RFC 4648 test vectors, and round trips through each target. */
+public class TestEncoding {
+
+	private static final Blake2b.Encoding[] encodings = { Blake2b.Encoding.hex, Blake2b.Encoding.base32, Blake2b.Encoding.base64url };
+
+	@Test public void testVectors () {
+		logit(this, "testVectors");
+		final String[] in = { "", "f", "fo", "foo", "foob", "fooba", "foobar" };
+		final String[] base32 = { "", "my", "mzxq", "mzxw6", "mzxw6yq", "mzxw6ytb", "mzxw6ytboi" };
+		final String[] base64 = { "", "Zg", "Zm8", "Zm9v", "Zm9vYg", "Zm9vYmE", "Zm9vYmFy" };
+		for (int i = 0; i < in.length; i++) {
+			final byte[] b = in[i].getBytes();
+			assertEquals( Blake2b.Encoding.hex.encode( b ), Blake2b.Engine.LittleEndian.toHexStr( b ), "hex " + in[i] );
+			assertEquals( Blake2b.Encoding.base32.encode( b ), base32[i], "base32 " + in[i] );
+			assertEquals( Blake2b.Encoding.base64url.encode( b ), base64[i], "base64url " + in[i] );
+		}
+		assertEquals( Blake2b.Encoding.base64url.encode( new byte[] { (byte) 0xfb, (byte) 0xff } ), "-_8", "url safe symbols" );
+		assertEquals( Blake2b.Encoding.hex.decode( "DEADbeef" ), new byte[] { (byte) 0xde, (byte) 0xad, (byte) 0xbe, (byte) 0xef }, eqFail("hex case") );
+		assertEquals( Blake2b.Encoding.base32.decode( "MZXW6YTBOI" ), "foobar".getBytes(), eqFail("base32 case") );
+	}
+
+	@Test public void testRoundTrip () {
+		logit(this, "testRoundTrip");
+		for (final Blake2b.Encoding encoding : encodings) {
+			for (int len = 0; len <= 64; len++) {
+				final byte[] b = new byte [ len ];
+				deterministic.nextBytes( b );
+				final String expected = encoding.encode( b );
+				final int n = encoding.encodedLength( len );
+				assertEquals( expected.length(), n, eqFail("encodedLength") );
+
+				final byte[] ascii = new byte [ n + 2 ];
+				assertEquals( encoding.encode( b, 0, len, ascii, 1 ), n, eqFail("encode (byte[])") );
+				assertEquals( new String( ascii, 1, n ), expected, "encode (byte[])" );
+
+				final ByteBuffer heap = ByteBuffer.allocate( n + 1 );
+				final ByteBuffer direct = ByteBuffer.allocateDirect( n + 1 );
+				for (final ByteBuffer buf : new ByteBuffer[] { heap, direct }) {
+					buf.put( (byte) '.' );
+					encoding.encode( b, 0, len, buf );
+					assertEquals( buf.position(), n + 1, eqFail("position") );
+					buf.flip().position( 1 );
+					final byte[] got = new byte [ n ];
+					buf.get( got );
+					assertEquals( new String( got ), expected, "encode (ByteBuffer)" );
+				}
+				assertEquals( encoding.encode( b, 0, len, new StringBuilder( "x" ) ).toString(), "x" + expected, "encode (StringBuilder)" );
+
+				assertEquals( encoding.decode( expected ), b, eqFail("decode") );
+				final long[] words = new long [ 8 ];
+				Arrays.fill( words, -1L );
+				assertEquals( encoding.decode( expected, words ), len, eqFail("decode (long[]) length") );
+				if ( len > 0 ) {
+					assertEquals( Blake2b.Hash.of( b ).getLong( (len - 1) >>> 3 ), words[ (len - 1) >>> 3 ], eqFail("decode (long[])") );
+				}
+			}
+		}
+	}
+
+	@Test public void testInvalid () {
+		logit(this, "testInvalid");
+		final String[] hex = { "abc", "0g" };
+		final String[] base64url = { "A", "Zh", "Zm9v+", "Zm9=" };
+		for (final String s : hex) assertInvalid( Blake2b.Encoding.hex, s );
+		for (final String s : base64url) assertInvalid( Blake2b.Encoding.base64url, s );
+		assertInvalid( Blake2b.Encoding.base32, "my1" );
+	}
+
+	private static void assertInvalid (final Blake2b.Encoding encoding, final String s) {
+		try {
+			encoding.decode( s );
+			assert false : "decoded invalid input " + s;
+		} catch (IllegalArgumentException expected) { }
+	}
+}
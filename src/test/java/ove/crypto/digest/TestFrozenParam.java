@@ -0,0 +1,98 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertSame;
+import static ove.test.Utils.*;
+
+/** Frozen and interned Params: equality, immutability, and engines of the same output. */
+public class TestFrozenParam {
+
+	@Test public void testEquality () {
+		logit(this, "testEquality");
+		final Blake2b.Param a = new Blake2b.Param().setDigestLength( 32 ).setSalt( "salt".getBytes() );
+		final Blake2b.Param b = new Blake2b.Param().setSalt( "salt".getBytes() ).setDigestLength( 32 );
+		assertEquals( a, b, "same param block" );
+		assertEquals( a.hashCode(), b.hashCode(), "same param block hash" );
+		assertEquals( new Blake2b.Param(), new Blake2b.Param().setDigestLength( 64 ), "explicit default" );
+		assertNotEquals( a, b.clone().setPersonal( "p".getBytes() ), "personal" );
+
+		// same key length, different keys
+		final Blake2b.Param k1 = new Blake2b.Param().setKey( "key1".getBytes() );
+		final Blake2b.Param k2 = new Blake2b.Param().setKey( "key2".getBytes() );
+		assertNotEquals( k1, k2, "keys" );
+		assertEquals( k1, new Blake2b.Param().setKey( "key1".getBytes() ), "same key" );
+		assertEquals( k1.hashCode(), new Blake2b.Param().setKey( "key1".getBytes() ).hashCode(), "same key hash" );
+		assertEquals( k1.freeze().hashCode(), k1.hashCode(), "frozen key hash" );
+		assertNotEquals( k1.hashCode(), k2.hashCode(), "key hashes" );
+	}
+
+	@Test public void testFreeze () {
+		logit(this, "testFreeze");
+		final Blake2b.Param param = new Blake2b.Param().setDigestLength( 32 );
+		final Blake2b.Param frozen = param.freeze();
+		assert frozen.isFrozen() && !param.isFrozen() : "freeze copies";
+		assertSame( frozen.freeze(), frozen, "frozen.freeze()" );
+		assertEquals( frozen, param, "frozen copy" );
+		try {
+			frozen.setDigestLength( 20 );
+			assert false : "frozen param was set";
+		} catch (IllegalStateException expected) { }
+		assert !frozen.clone().isFrozen() : "clone is mutable";
+		param.setDigestLength( 20 );
+		assertEquals( frozen.getDigestLength(), 32, eqFail("frozen after set of original") );
+	}
+
+	@Test public void testIntern () {
+		logit(this, "testIntern");
+		final Blake2b.Param p256 = Blake2b.Param.canonical( 32 );
+		assertSame( Blake2b.Param.canonical( 32 ), p256, "canonical" );
+		assertSame( Blake2b.Param.intern( new Blake2b.Param().setDigestLength( 32 ) ), p256, "interned" );
+		assertSame( Blake2b.Param.intern( new Blake2b.Param() ), Blake2b.Param.canonical( 64 ), "default" );
+		assert p256.isFrozen() : "interned param is not frozen";
+
+		// the shared state vector is not exposed
+		final byte[] expected = Blake2b.Digest.newInstance( p256 ).digest( "abc".getBytes() );
+		p256.initialized_H()[0] ^= 1;
+		assertEquals( Blake2b.Digest.newInstance( Blake2b.Param.canonical( 32 ) ).digest( "abc".getBytes() ), expected, eqFail("canonical h") );
+	}
+
+	@Test public void testEngines () {
+		logit(this, "testEngines");
+		final byte[] input = new byte [ 300 ];
+		deterministic.nextBytes( input );
+		final Blake2b.Param keyed = new Blake2b.Param().setKey( "key".getBytes() ).setDigestLength( 40 );
+		final Blake2b.Param frozen = Blake2b.Param.intern( keyed );
+		final byte[] expected = Blake2b.Mac.newInstance( keyed ).digest( input );
+		assertEquals( Blake2b.Mac.newInstance( frozen ).digest( input ), expected, eqFail("keyed") );
+		assertEquals( Blake2b.Mac.newInstance( frozen ).digest(), Blake2b.Mac.newInstance( keyed ).digest(), eqFail("keyed (empty)") );
+		assertEquals( Blake2b.Mac.newInstance( frozen, Blake2b.Kernel.compact() ).digest( input ), expected, eqFail("keyed (compact)") );
+
+		// re-targeting an engine of a frozen param leaves the param as is
+		final Blake2b.Mac mac = Blake2b.Mac.newInstance( frozen );
+		mac.setKey( "other".getBytes() );
+		assertEquals( mac.digest( input ), Blake2b.Mac.newInstance( "other".getBytes(), 40 ).digest( input ), eqFail("re-keyed") );
+		assertEquals( Blake2b.Mac.newInstance( frozen ).digest( input ), expected, eqFail("frozen after re-key") );
+	}
+}
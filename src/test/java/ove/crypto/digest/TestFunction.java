@@ -0,0 +1,103 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** Blake2b.Function must match a Digest (or Mac) of the same Param, shared or not. */
+public class TestFunction {
+
+	private static byte[] input () {
+		final byte[] input = new byte [ 600 ];
+		deterministic.nextBytes( input );
+		return input;
+	}
+
+	private static void assertFunction (final Blake2b.Param param, final Blake2b reference, final String info) {
+		final byte[] input = input();
+		final Blake2b.Function function = Blake2b.Function.of( param );
+		for (int len = 0; len <= input.length - 3; len++) {
+			reference.update( input, 3, len );
+			assertEquals( function.hash( input, 3, len ), reference.digest(), eqFail(info + " len " + len) );
+		}
+	}
+
+	@Test public void testDigest () {
+		logit(this, "testDigest");
+		final Blake2b.Param param = new Blake2b.Param().setDigestLength( 20 ).setPersonal( "personal".getBytes() );
+		assertFunction( param, Blake2b.Digest.newInstance(param), "digest" );
+	}
+
+	@Test public void testMac () {
+		logit(this, "testMac");
+		final Blake2b.Param param = new Blake2b.Param().setKey( "key".getBytes() );
+		assertFunction( param, Blake2b.Mac.newInstance(param), "mac" );
+	}
+
+	@Test public void testTreeNode () {
+		logit(this, "testTreeNode");
+		final Blake2b.Param param = new Blake2b.Param().setDepth( 2 ).setFanout( 4 ).setLeafLength( 4096 )
+				.setInnerLength( 64 ).setNodeDepth( 0 ).setNodeOffset( 3 );
+		assertFunction( param, new Blake2b.Tree( 2, 4, 4096, 64, 32 ).getNode( 0, 3 ), "last node" );
+	}
+
+	@Test public void testSnapshot () {
+		logit(this, "testSnapshot");
+		final Blake2b.Param param = new Blake2b.Param().setKey( "key".getBytes() );
+		final Blake2b.Function function = Blake2b.Function.of( param );
+		final byte[] input = input();
+		final byte[] expected = function.hash( input );
+		param.setKey( "other key".getBytes() );
+		assertEquals( function.hash( input ), expected, eqFail("param changed") );
+	}
+
+	@Test public void testShared () throws InterruptedException {
+		logit(this, "testShared");
+		final Blake2b.Function function = Blake2b.Function.of( new Blake2b.Param().setKey( "key".getBytes() ) );
+		final byte[] input = input();
+		final byte[][] expected = new byte [ input.length + 1 ][];
+		for (int len = 0; len <= input.length; len++) {
+			expected[len] = Blake2b.Mac.newInstance( "key".getBytes() ).digest( Arrays.copyOf( input, len ) );
+		}
+		final boolean[] failed = new boolean [ 1 ];
+		final Thread[] threads = new Thread [ 8 ];
+		for (int t = 0; t < threads.length; t++) {
+			final int seed = t;
+			threads[t] = new Thread() {
+				@Override public void run () {
+					final byte[] out = new byte [ function.digestLength() ];
+					for (int n = 0; n < 4000; n++) {
+						final int len = (n * 31 + seed * 7) % expected.length;
+						function.hash( input, 0, len, out, 0 );
+						if ( !Arrays.equals( out, expected[len] ) ) failed[0] = true;
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for (final Thread thread : threads) thread.join();
+		assert !failed[0] : "shared function returned a wrong hash";
+	}
+}
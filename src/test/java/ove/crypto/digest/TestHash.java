@@ -0,0 +1,97 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static ove.test.Utils.*;
+
+/** Blake2b.Hash must be equal, and ordered, as its digest bytes are. */
+public class TestHash {
+
+	private static byte[] input () {
+		final byte[] input = new byte [ 300 ];
+		deterministic.nextBytes( input );
+		return input;
+	}
+
+	@Test public void testDigest () {
+		logit(this, "testDigest");
+		final byte[] input = input();
+		for (final int len : new int[] { 64, 32, 20, 8, 3 }) {
+			final Blake2b digest = Blake2b.Digest.newInstance( len );
+			final byte[] expected = digest.digest( input );
+			digest.update( input );
+			final Blake2b.Hash hash = digest.digestToHash();
+			assertEquals( hash.length(), len, eqFail("length") );
+			assertEquals( hash.toBytes(), expected, eqFail("toBytes, length " + len) );
+			assertEquals( hash, Blake2b.Hash.of( expected ), "Hash.of, length " + len );
+			assertEquals( hash.hashCode(), Blake2b.Hash.of( expected ).hashCode(), "hashCode, length " + len );
+
+			final ByteBuffer buf = ByteBuffer.allocate( 80 ).order( ByteOrder.BIG_ENDIAN );
+			buf.put( (byte) 1 );
+			hash.writeTo( buf );
+			assertEquals( buf.position(), 1 + len, eqFail("position") );
+			assertEquals( buf.order(), ByteOrder.BIG_ENDIAN, "order restored" );
+			assertEquals( Arrays.copyOfRange( buf.array(), 1, 1 + len ), expected, eqFail("writeTo, length " + len) );
+		}
+	}
+
+	@Test public void testEquality () {
+		logit(this, "testEquality");
+		final byte[] a = Arrays.copyOf( input(), 64 );
+		final byte[] b = a.clone();
+		b[ 17 ] ^= 1;
+		assertNotEquals( Blake2b.Hash.of( a ), Blake2b.Hash.of( b ), "differ at 17" );
+		assertNotEquals( Blake2b.Hash.of( new byte [ 8 ] ), Blake2b.Hash.of( new byte [ 16 ] ), "lengths" );
+	}
+
+	/** unsigned lexicographic byte order */
+	private static int compare (final byte[] a, final byte[] b) {
+		for (int i = 0; i < Math.min( a.length, b.length ); i++) {
+			if ( a[i] != b[i] ) return (a[i] & 0xFF) < (b[i] & 0xFF) ? -1 : 1;
+		}
+		return a.length < b.length ? -1 : a.length == b.length ? 0 : 1;
+	}
+
+	@Test public void testOrder () {
+		logit(this, "testOrder");
+		final byte[][] values = new byte [ 200 ][];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = new byte [ 1 + deterministic.nextInt( 24 ) ];
+			deterministic.nextBytes( values[i] );
+			if ( i % 4 == 0 && i > 0 ) {  // shared prefixes
+				System.arraycopy( values[i - 1], 0, values[i], 0, Math.min( values[i].length, values[i - 1].length ) - 1 );
+			}
+		}
+		for (final byte[] x : values) {
+			for (final byte[] y : values) {
+				assertEquals( Integer.signum( Blake2b.Hash.of( x ).compareTo( Blake2b.Hash.of( y ) ) ), compare( x, y ),
+						eqFail("compareTo") );
+			}
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** Blake2b.Digest.hashShort output must be identical to that of Digest / Mac for inputs of 0 .. 128 bytes. */
+public class TestHashShort {
+
+	private static void check (final Blake2b.Param p) {
+		final int outlen = p.getDigestLength();
+		final byte[] in = new byte [ Blake2b.Spec.block_bytes + 3 ];
+		deterministic.nextBytes( in );
+		final byte[] out = new byte [ outlen + 5 ];
+		for (int len = 0; len <= Blake2b.Spec.block_bytes; len++) {
+			Blake2b.Digest.hashShort( in, 3, len, out, 5, p );
+
+			final Blake2b digest = p.hasKey() ? Blake2b.Mac.newInstance(p) : Blake2b.Digest.newInstance(p);
+			digest.update( in, 3, len );
+			assertEquals( Arrays.copyOfRange(out, 5, 5 + outlen), digest.digest(), eqFail("hashShort digest (len " + len + ")") );
+		}
+	}
+
+	@Test public void testDefaultParam () {
+		logit(this, "testDefaultParam");
+		check( new Blake2b.Param() );
+		check( new Blake2b.Param().setDigestLength(20) );
+	}
+
+	@Test public void testKeyed () {
+		logit(this, "testKeyed");
+		check( new Blake2b.Param().setKey(Blake2BTestUtils.Reference.getKATKey()) );
+		check( new Blake2b.Param().setKey("short".getBytes()).setDigestLength(32) );
+	}
+
+	@Test public void testTreeLastNode () {
+		logit(this, "testTreeLastNode");
+		check( new Blake2b.Param().setDepth(2).setFanout(2).setNodeOffset(1).setInnerLength(64) );
+	}
+
+	@Test public void testLongInput () {
+		logit(this, "testLongInput");
+		final byte[] in = new byte [ Blake2b.Spec.block_bytes + 1 ];
+		try {
+			Blake2b.Digest.hashShort( in, 0, in.length, new byte [ 64 ], 0, new Blake2b.Param() );
+			assert false : "hashShort of more than a block";
+		} catch (IllegalArgumentException expected) { }
+	}
+}
@@ -0,0 +1,71 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** Typed Hasher input must hash as its (little-endian / UTF-8) byte[] encoding, across block boundaries. */
+public class TestHasher {
+
+	@Test public void testPrimitives () {
+		logit(this, "testPrimitives");
+		final Blake2b.Param param = new Blake2b.Param().setKey( "key".getBytes() );
+		final Blake2b.Hasher hasher = Blake2b.Hasher.newInstance( param );
+		final Blake2b reference = Blake2b.Mac.newInstance( param );
+		final ByteBuffer record = ByteBuffer.allocate( 21 ).order( ByteOrder.LITTLE_ENDIAN );
+		// 21 byte records: fields straddle every block offset
+		for (int n = 1; n < 100; n++) {
+			for (int i = 0; i < n; i++) {
+				final long v = deterministic.nextLong();
+				record.clear();
+				record.put( (byte) i ).putInt( (int) v ).putLong( v ).putDouble( v / 3.0 );
+				reference.update( record.array() );
+				hasher.putByte( (byte) i ).putInt( (int) v ).putLong( v ).putDouble( v / 3.0 );
+			}
+			assertEquals( hasher.digest(), reference.digest(), eqFail(n + " records") );
+		}
+	}
+
+	@Test public void testUtf8 () throws UnsupportedEncodingException {
+		logit(this, "testUtf8");
+		final String[] strings = {
+				"", "ascii", "caf\u00e9", "\u20ac uro", "\ud83d\ude00 smile", "lone \ud83d high", "lone \ude00 low", "end \ud83d",
+		};
+		final Blake2b.Hasher hasher = Blake2b.Hasher.newInstance();
+		final Blake2b reference = Blake2b.Digest.newInstance();
+		for (int pad = 0; pad < 130; pad++) {
+			for (final String s : strings) {
+				final StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < pad; i++) sb.append( 'x' );
+				sb.append( s ).append( s );
+				reference.update( sb.toString().getBytes( "UTF-8" ) );
+				hasher.putUtf8( sb );
+				assertEquals( hasher.digest(), reference.digest(), eqFail("'" + s + "' @ " + pad) );
+			}
+		}
+	}
+}
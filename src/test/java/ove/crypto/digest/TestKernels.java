@@ -0,0 +1,85 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.*;
+import static ove.test.Utils.*;
+
+/** Every compression kernel supported by the runtime must pass the KAT self-test. */
+public class TestKernels {
+
+	@Test public void testActive () {
+		logit(this, "testActive");
+		final Blake2b.Kernel active = Blake2b.Kernel.active();
+		assertNotNull( active, "no active kernel" );
+		assertNotNull( active.name(), "kernel name" );
+		assertTrue( Blake2b.Kernel.selftest(active), "self-test failed: " + active );
+	}
+
+	@Test public void testPreferred () {
+		logit(this, "testPreferred");
+		if ( System.getProperty(Blake2b.Kernel.property) != null ) return;   // forced
+		// the first correct kernel, in order of preference (vector, if present), is active
+		for (final Blake2b.Kernel k : Blake2b.Kernel.available()) {
+			if ( !Blake2b.Kernel.selftest(k) ) continue;
+			assertEquals( Blake2b.Kernel.active().name(), k.name(), "active kernel" );
+			return;
+		}
+	}
+
+	/** @return the available kernels and compact */
+	private static List<Blake2b.Kernel> kernels () {
+		final List<Blake2b.Kernel> kernels = Blake2b.Kernel.available();
+		kernels.add( Blake2b.Kernel.compact() );
+		return kernels;
+	}
+
+	@Test public void testAvailable () {
+		logit(this, "testAvailable");
+		assertFalse( Blake2b.Kernel.available().contains(Blake2b.Kernel.compact()), "compact is a candidate" );
+		for (final Blake2b.Kernel k : kernels()) {
+			assertTrue( Blake2b.Kernel.selftest(k), "self-test failed: " + k );
+			// so that the kernel property can tell an unsupported kernel from an unknown name
+			assertTrue( Arrays.asList(Blake2b.Kernel.names).contains(k.name()), "kernel not in names: " + k );
+		}
+	}
+
+	@Test public void testPerEngineKernel () {
+		logit(this, "testPerEngineKernel");
+		final Blake2b.Param param = new Blake2b.Param().setDigestLength(32);
+		final Blake2b.Param keyed = new Blake2b.Param().setKey("per engine kernel".getBytes());
+		final int[] lens = { 0, 1, 127, 128, 129, 1000, 4096 };
+		for (final Blake2b.Kernel k : kernels()) {
+			for (final int len : lens) {
+				final byte[] input = new byte [ len ];
+				deterministic.nextBytes( input );
+				assertEquals( Blake2b.Digest.newInstance(param, k).digest(input),
+						Blake2b.Digest.newInstance(param).digest(input), eqFail(k + " digest") );
+				assertEquals( Blake2b.Mac.newInstance(keyed, k).digest(input),
+						Blake2b.Mac.newInstance(keyed).digest(input), eqFail(k + " mac") );
+			}
+		}
+	}
+}
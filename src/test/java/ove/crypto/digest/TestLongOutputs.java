@@ -0,0 +1,84 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** Word (long) outputs must be the little-endian words of the byte[] digest, zero filled. */
+public class TestLongOutputs {
+
+	private static byte[] input () {
+		final byte[] input = new byte [ 300 ];
+		deterministic.nextBytes( input );
+		return input;
+	}
+
+	/** @return little-endian words of b, zero filled */
+	private static long[] words (final byte[] b) {
+		final long[] w = new long [ (b.length + 7) >>> 3 ];
+		for (int i = 0; i < b.length; i++) {
+			w[ i >>> 3 ] |= (b[i] & 0xFFL) << ((i & 7) << 3);
+		}
+		return w;
+	}
+
+	@Test public void testDigest () {
+		logit(this, "testDigest");
+		final byte[] input = input();
+		for (final int len : new int[] { 64, 32, 20, 8, 5, 1 }) {
+			final Blake2b.Param param = new Blake2b.Param().setDigestLength( len );
+			final long[] expected = words( Blake2b.Digest.newInstance(param).digest( input ) );
+			final Blake2b digest = Blake2b.Digest.newInstance(param);
+
+			digest.update( input );
+			assertEquals( digest.digestToLong(), expected[0], eqFail("digestToLong, length " + len) );
+
+			final long[] out = new long [ expected.length ];
+			digest.update( input );
+			digest.digestTo( out );
+			assertEquals( out, expected, eqFail("digestTo, length " + len) );
+		}
+	}
+
+	@Test public void testMac () {
+		logit(this, "testMac");
+		final byte[] input = input();
+		final Blake2b.Param param = new Blake2b.Param().setKey( "key".getBytes() ).setDigestLength( 16 );
+		final long[] expected = words( Blake2b.Mac.newInstance(param).digest( input ) );
+		final long[] empty = words( Blake2b.Mac.newInstance(param).digest() );
+		final Blake2b mac = Blake2b.Mac.newInstance(param);
+		final long[] out = new long [ 2 ];
+
+		mac.update( input );
+		mac.digestTo( out );
+		assertEquals( out, expected, eqFail("mac digestTo") );
+		assertEquals( mac.digestToLong(), empty[0], eqFail("mac digestToLong (empty)") );
+
+		final Blake2b.Function function = Blake2b.Function.of( param );
+		assertEquals( function.hash64( input, 0, input.length ), expected[0], eqFail("hash64") );
+		function.hash128( input, 0, input.length, out );
+		assertEquals( out, expected, eqFail("hash128") );
+		function.hash128( input, 0, 0, out );
+		assertEquals( out, empty, eqFail("hash128 (empty)") );
+	}
+}
@@ -0,0 +1,58 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** A reused (reset) Mac - restored from its post-key state - must match a new Mac. */
+public class TestMacReset {
+
+	@Test public void testReuse () {
+		logit(this, "testReuse");
+		final Blake2b.Param p = new Blake2b.Param().setKey("fixed gateway key".getBytes()).setDigestLength(32);
+		final Blake2b mac = Blake2b.Mac.newInstance(p);
+		for (final int len : new int[] { 0, 1, 0, 127, 128, 129, 0, 256, 1000, 0 }) {
+			final byte[] input = new byte [ len ];
+			deterministic.nextBytes( input );
+			assertEquals( mac.digest(input), Blake2b.Mac.newInstance(p).digest(input), eqFail("reused mac (len " + len + ")") );
+		}
+		// explicit reset discards pending input
+		mac.update( new byte[] { 1, 2, 3 } );
+		mac.reset();
+		assertEquals( mac.digest(), Blake2b.Mac.newInstance(p).digest(), eqFail("reset mac") );
+	}
+
+	@Test public void testResumed () {
+		logit(this, "testResumed");
+		final Blake2b.Param p = new Blake2b.Param().setKey("fixed gateway key".getBytes());
+		final byte[] input = new byte [ 300 ];
+		deterministic.nextBytes( input );
+		for (final int split : new int[] { 0, 1, 128, 200 }) {
+			final Blake2b mac = Blake2b.Mac.newInstance(p);
+			mac.update( input, 0, split );
+			final Blake2b resumed = mac.state().resume(p);
+			resumed.update( input, split, input.length - split );
+			assertEquals( resumed.digest(), Blake2b.Mac.newInstance(p).digest(input), eqFail("resumed mac (split " + split + ")") );
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** Blake2b.Multi digests must be identical to those of a Digest / Mac per Param. */
+public class TestMulti {
+
+	private static final Blake2b.Param[] params = {
+		new Blake2b.Param(),
+		new Blake2b.Param().setDigestLength(32).setPersonal("tenant-a".getBytes()),
+		new Blake2b.Param().setKey("key of tenant a".getBytes()),
+		new Blake2b.Param().setKey(Blake2BTestUtils.Reference.getKATKey()).setDigestLength(20).setSalt(new byte[] { 7 }),
+		new Blake2b.Param().setDepth(2).setFanout(2).setNodeOffset(1).setInnerLength(64),
+	};
+
+	private static void check (final Blake2b.Multi multi, final byte[] input, final int chunk) {
+		for (int off = 0; off < input.length; off += chunk) {
+			if ( chunk == 1 && (off & 1) == 0 ) {
+				multi.update( input[off] );
+				continue;
+			}
+			multi.update( input, off, Math.min(chunk, input.length - off) );
+		}
+		final byte[][] digests = multi.digest();
+		assertEquals( digests.length, params.length );
+		for (int i = 0; i < params.length; i++) {
+			final Blake2b.Param p = params[i];
+			final Blake2b digest = p.hasKey() ? Blake2b.Mac.newInstance(p) : Blake2b.Digest.newInstance(p);
+			assertEquals( digests[i], digest.digest(input), eqFail("multi digest " + i + " (len " + input.length + ", chunk " + chunk + ")") );
+		}
+	}
+
+	@Test public void testDigests () {
+		logit(this, "testDigests");
+		final Blake2b.Multi multi = Blake2b.Multi.newInstance( Arrays.asList(params) );
+		for (final int len : new int[] { 0, 1, 127, 128, 129, 255, 256, 257, 1000, 4096 }) {
+			final byte[] input = new byte [ len ];
+			deterministic.nextBytes( input );
+			for (final int chunk : new int[] { 1, 7, 128, 129, 5000 }) {
+				check( multi, input, chunk );   // digest() resets: instance is reused
+			}
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** Engines from a PrefixCache, hit or miss, must match an engine fed prefix and suffix. */
+public class TestPrefixCache {
+
+	private static byte[] bytes (final int n) {
+		final byte[] b = new byte [ n ];
+		deterministic.nextBytes( b );
+		return b;
+	}
+
+	private static void assertPrefixes (final Blake2b.Param param, final Blake2b reference, final String info) {
+		final Blake2b.PrefixCache cache = new Blake2b.PrefixCache( 16, param );
+		final byte[] suffix = bytes( 200 );
+		for (final int len : new int[] { 0, 1, 127, 128, 129, 300 }) {
+			final byte[] prefix = bytes( len );
+			reference.update( prefix );
+			final byte[] expected = reference.digest( suffix );
+			for (int i = 0; i < 2; i++) {  // miss, then hit
+				assertEquals( cache.get( prefix ).digest( suffix ), expected, eqFail(info + " prefix " + len + " get " + i) );
+			}
+			// the cache keeps its own copy of the prefix: hit by content, not by array
+			final byte[] same = prefix.clone();
+			if ( len > 0 ) prefix[0] ^= 1;
+			assertEquals( cache.get( same ).digest( suffix ), expected, eqFail(info + " prefix " + len + " equal content") );
+		}
+		assertEquals( cache.misses(), 6, eqFail(info + " misses") );
+		assertEquals( cache.hits(), 12, eqFail(info + " hits") );
+	}
+
+	@Test public void testDigest () {
+		logit(this, "testDigest");
+		final Blake2b.Param param = new Blake2b.Param().setDigestLength( 32 );
+		assertPrefixes( param, Blake2b.Digest.newInstance(param), "digest" );
+	}
+
+	@Test public void testMac () {
+		logit(this, "testMac");
+		final Blake2b.Param param = new Blake2b.Param().setKey( "key".getBytes() );
+		assertPrefixes( param, Blake2b.Mac.newInstance(param), "mac" );
+	}
+
+	@Test public void testEviction () {
+		logit(this, "testEviction");
+		final Blake2b.PrefixCache cache = new Blake2b.PrefixCache( 2, new Blake2b.Param() );
+		final byte[] a = bytes( 256 ), b = bytes( 256 ), c = bytes( 256 );
+		final byte[] expected = Blake2b.Digest.newInstance().digest( a );
+		cache.get( "a", a, 0, a.length );
+		cache.get( "b", b, 0, b.length );
+		cache.get( "a", null, 0, 0 );              // hit: a is most recently used
+		cache.get( "c", c, 0, c.length );          // evicts b
+		assertEquals( cache.size(), 2, eqFail("size") );
+		assertEquals( cache.get( "a", null, 0, 0 ).digest(), expected, eqFail("a retained") );
+		assertEquals( cache.hits(), 2, eqFail("hits") );
+		cache.get( "b", b, 0, b.length );
+		assertEquals( cache.misses(), 4, eqFail("b evicted") );
+	}
+
+	@Test public void testConcurrent () throws InterruptedException {
+		logit(this, "testConcurrent");
+		final Blake2b.PrefixCache cache = new Blake2b.PrefixCache( 4, new Blake2b.Param() );
+		final byte[][] prefixes = { bytes( 129 ), bytes( 300 ), bytes( 500 ), bytes( 700 ), bytes( 1000 ), bytes( 64 ) };
+		final byte[][] expected = new byte [ prefixes.length ][];
+		for (int i = 0; i < prefixes.length; i++) {
+			expected[i] = Blake2b.Digest.newInstance().digest( prefixes[i] );
+		}
+		final boolean[] failed = new boolean [ 1 ];
+		final Thread[] threads = new Thread [ 4 ];
+		for (int t = 0; t < threads.length; t++) {
+			final int seed = t;
+			threads[t] = new Thread() {
+				@Override public void run () {
+					for (int n = 0; n < 2000; n++) {
+						final int i = (n * 7 + seed) % prefixes.length;
+						if ( !Arrays.equals( cache.get( prefixes[i] ).digest(), expected[i] ) ) {
+							failed[0] = true;
+						}
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for (final Thread thread : threads) thread.join();
+		assert !failed[0] : "concurrent get returned a wrong state";
+		assertEquals( cache.hits() + cache.misses(), 8000L, eqFail("counters") );
+	}
+}
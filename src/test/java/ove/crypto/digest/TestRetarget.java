@@ -0,0 +1,81 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** A re-parameterized engine must match a new engine of the same Param; a shared Param is not modified. */
+public class TestRetarget {
+
+	private static byte[] input () {
+		final byte[] input = new byte [ 300 ];
+		deterministic.nextBytes( input );
+		return input;
+	}
+
+	@Test public void testSetters () {
+		logit(this, "testSetters");
+		final byte[] input = input();
+		final Blake2b.Param shared = new Blake2b.Param();
+		final Blake2b.Digest digest = Blake2b.Digest.newInstance(shared);
+		final Blake2b.Param expected = new Blake2b.Param();
+
+		digest.update( input, 0, 10 );  // discarded: setters reset
+		digest.setSalt( "salt".getBytes() );
+		expected.setSalt( "salt".getBytes() );
+		assertEquals( digest.digest(input), Blake2b.Digest.newInstance(expected).digest(input), eqFail("salt") );
+
+		digest.setPersonal( "personal".getBytes() );
+		expected.setPersonal( "personal".getBytes() );
+		assertEquals( digest.digest(input), Blake2b.Digest.newInstance(expected).digest(input), eqFail("personal") );
+
+		digest.setDigestLength( 24 );
+		expected.setDigestLength( 24 );
+		assertEquals( digest.digest(input), Blake2b.Digest.newInstance(expected).digest(input), eqFail("digest length") );
+
+		digest.setKey( "key".getBytes() );
+		expected.setKey( "key".getBytes() );
+		assertEquals( digest.digest(input), Blake2b.Mac.newInstance(expected).digest(input), eqFail("key") );
+		assertEquals( digest.digest(), Blake2b.Mac.newInstance(expected).digest(), eqFail("key (empty)") );
+
+		digest.setKey( "other key".getBytes() );
+		expected.setKey( "other key".getBytes() );
+		assertEquals( digest.digest(input), Blake2b.Mac.newInstance(expected).digest(input), eqFail("re-key") );
+
+		// the shared param is unchanged
+		assertEquals( Blake2b.Digest.newInstance(shared).digest(input), Blake2b.Digest.newInstance().digest(input), eqFail("shared param") );
+	}
+
+	@Test public void testTreeNodes () {
+		logit(this, "testTreeNodes");
+		final byte[] input = input();
+		final Blake2b.Tree tree = new Blake2b.Tree( 2, 4, 4096, 64, 32 );
+		final Blake2b.Digest node = tree.getNode( 0, 0 );
+		// the leaves, then the root level
+		final int[][] nodes = { {0, 0}, {0, 1}, {0, 2}, {0, 3}, {1, 0} };
+		for (final int[] at : nodes) {
+			tree.getNode( node, at[0], at[1] );
+			assertEquals( node.digest(input), tree.getNode(at[0], at[1]).digest(input), eqFail("node (" + at[0] + "," + at[1] + ")") );
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** Blake2b.StateSlab stream digests must be identical to those of a Digest / Mac per stream. */
+public class TestStateSlab {
+
+	private static final int streams = 5;
+	private static final int[] lens = { 0, 1, 128, 129, 3000 };
+
+	private static byte[][] newInputs () {
+		final byte[][] inputs = new byte [ streams ][];
+		for (int i = 0; i < streams; i++) {
+			inputs[i] = new byte [ lens[i] ];
+			deterministic.nextBytes( inputs[i] );
+		}
+		return inputs;
+	}
+
+	/** interleave chunks of all streams, alternating heap and direct buffers */
+	private static void feed (final Blake2b.StateSlab slab, final byte[][] inputs, final int from, final int to, final int chunk) {
+		for (int off = from; off < to; off += chunk) {
+			for (int id = 0; id < streams; id++) {
+				final int n = Math.min( chunk, Math.min(to, inputs[id].length) - off );
+				if ( n <= 0 ) continue;
+				if ( (off / chunk & 1) == 0 ) {
+					slab.update( id, inputs[id], off, n );
+				} else {
+					final ByteBuffer direct = ByteBuffer.allocateDirect( n );
+					direct.put( inputs[id], off, n ).flip();
+					slab.update( id, direct );
+					assertEquals( direct.remaining(), 0 );
+				}
+			}
+		}
+	}
+
+	private static void verify (final Blake2b.StateSlab slab, final byte[][] inputs, final Blake2b.Param p) {
+		for (int id = 0; id < streams; id++) {
+			final Blake2b digest = p.hasKey() ? Blake2b.Mac.newInstance(p) : Blake2b.Digest.newInstance(p);
+			assertEquals( slab.digest(id), digest.digest(inputs[id]), eqFail("slab digest (len " + inputs[id].length + ")") );
+		}
+	}
+
+	@Test public void testDirect () {
+		logit(this, "testDirect");
+		for (final Blake2b.Param p : new Blake2b.Param[] {
+				new Blake2b.Param(), new Blake2b.Param().setDigestLength(32).setKey("slab".getBytes()) }) {
+			final Blake2b.StateSlab slab = Blake2b.StateSlab.allocate( streams, p );
+			final byte[][] inputs = newInputs();
+			for (final int chunk : new int[] { 1, 100, 300 }) {
+				feed( slab, inputs, 0, 3000, chunk );
+				verify( slab, inputs, p );   // digest restarts the streams
+			}
+		}
+	}
+
+	@Test public void testMapped () throws Exception {
+		logit(this, "testMapped");
+		final File file = new File( getTestOutputDir(), "state-slab.bin" );
+		file.delete();
+		final Blake2b.Param p = new Blake2b.Param().setPersonal("uploads".getBytes());
+		final byte[][] inputs = newInputs();
+
+		// streams survive re-mapping the file
+		final Blake2b.StateSlab slab = Blake2b.StateSlab.map( file, streams, p );
+		feed( slab, inputs, 0, 1000, 100 );
+		slab.force();
+		final Blake2b.StateSlab resumed = Blake2b.StateSlab.map( file, streams, p );
+		feed( resumed, inputs, 1000, 3000, 100 );
+		verify( resumed, inputs, p );
+		file.delete();
+	}
+}
@@ -0,0 +1,113 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static ove.test.Utils.*;
+
+/** update(long[], ..) must hash as update of the little-endian bytes of the words, at any buffer offset. */
+public class TestUpdateWords {
+
+	/** a kernel, by default compact, that counts the blocks it compresses */
+	static final class Counting extends Blake2b.Kernel {
+		int blocks;
+		@Override public String name () { return "counting"; }
+		@Override void compress (final long[] h, final long t0, final long t1, final long f0, final long f1,
+				final byte[] b, final int off) {
+			blocks++;
+			Blake2b.Kernel.compact().compress( h, t0, t1, f0, f1, b, off );
+		}
+	}
+
+	private static void assertWords (final Blake2b engine, final Blake2b reference, final String info) {
+		final long[] words = new long [ 50 ];
+		for (int i = 0; i < words.length; i++) words[i] = deterministic.nextLong();
+		final byte[] bytes = new byte [ words.length << 3 ];
+		for (int i = 0; i < words.length; i++) Blake2b.Engine.LittleEndian.writeLong( words[i], bytes, i << 3 );
+		final byte[] prefix = new byte [ 140 ];
+		deterministic.nextBytes( prefix );
+
+		for (final int pre : new int[] { 0, 3, 8, 120, 125, 128, 131, 136 }) {
+			for (int len = 0; len <= 48; len++) {
+				engine.update( prefix, 0, pre );
+				engine.update( words, 2, len );
+				engine.update( (byte) 7 );
+				reference.update( prefix, 0, pre );
+				reference.update( bytes, 16, len << 3 );
+				reference.update( (byte) 7 );
+				assertEquals( engine.digest(), reference.digest(), eqFail(info + " prefix " + pre + ", words " + len) );
+
+				// words last
+				engine.update( prefix, 0, pre );
+				engine.update( words, 0, len );
+				reference.update( prefix, 0, pre );
+				reference.update( bytes, 0, len << 3 );
+				assertEquals( engine.digest(), reference.digest(), eqFail(info + " (last) prefix " + pre + ", words " + len) );
+			}
+		}
+	}
+
+	@Test public void testDigest () {
+		logit(this, "testDigest");
+		assertWords( Blake2b.Digest.newInstance(), Blake2b.Digest.newInstance(), "digest" );
+	}
+
+	@Test public void testKernels () throws NoSuchMethodException {
+		logit(this, "testKernels");
+		final List<Blake2b.Kernel> kernels = Blake2b.Kernel.available();
+		kernels.add( Blake2b.Kernel.compact() );
+		boolean varhandle = false;
+		for (final Blake2b.Kernel k : kernels) {
+			varhandle |= k.name().equals( "varhandle" );
+			assertWords( Blake2b.Digest.newInstance(new Blake2b.Param(), k), Blake2b.Digest.newInstance(), k.name() );
+			// words are passed to the rounds as is, not via the default's byte encoding
+			k.getClass().getDeclaredMethod( "compress", long[].class, long.class, long.class, long.class, long.class,
+					long[].class, int.class );
+		}
+		if ( !System.getProperty("java.specification.version").startsWith("1.") ) {
+			assertTrue( varhandle, "varhandle kernel on Java 9+" );
+		}
+	}
+
+	@Test public void testKernel () {
+		logit(this, "testKernel");
+		final Blake2b.Param param = new Blake2b.Param();
+		assertWords( Blake2b.Digest.newInstance(param, Blake2b.Kernel.compact()), Blake2b.Digest.newInstance(), "compact" );
+
+		// whole blocks of words go to the engine's kernel
+		final Counting kernel = new Counting();
+		final Blake2b engine = Blake2b.Digest.newInstance( param, kernel );
+		engine.update( new long [ 16 * 4 ], 0, 16 * 4 );
+		assertEquals( kernel.blocks, 3, eqFail("blocks") );
+		assertEquals( engine.digest(), Blake2b.Digest.newInstance().digest( new byte [ 128 * 4 ] ), eqFail("digest") );
+		assertEquals( kernel.blocks, 4, eqFail("blocks") );
+	}
+
+	@Test public void testMac () {
+		logit(this, "testMac");
+		final Blake2b.Param param = new Blake2b.Param().setKey( "key".getBytes() ).setDigestLength( 32 );
+		assertWords( Blake2b.Mac.newInstance(param), Blake2b.Mac.newInstance(param), "mac" );
+	}
+}
@@ -0,0 +1,116 @@
+/* !!! DOOST !!! */
+
+/*
+   A Java implementation of BLAKE2B cryptographic digest algorithm.
+
+   Joubin Mohammad Houshyar <alphazero@sensesay.net>
+   bushwick, nyc
+   02-14-2014
+
+   --
+
+   To the extent possible under law, the author(s) have dedicated all copyright
+   and related and neighboring rights to this software to the public domain
+   worldwide. This software is distributed without any warranty.
+
+   You should have received a copy of the CC0 Public Domain Dedication along with
+   this software. If not, see <http://creativecommons.org/publicdomain/zero/1.0/>.
+*/
+
+package ove.crypto.digest;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static ove.test.Utils.*;
+
+/** Blake2b.Words output must be that of Digest / Mac of the words' little-endian bytes. */
+public class TestWords {
+
+	private static long[] newWords (final int n) {
+		final long[] w = new long [ n ];
+		for (int i = 0; i < n; i++) w[i] = deterministic.nextLong();
+		return w;
+	}
+
+	private static byte[] bytes (final long[] a, final long[] b) {
+		final byte[] out = new byte [ (a.length + b.length) << 3 ];
+		for (int i = 0; i < a.length; i++) Blake2b.Engine.LittleEndian.writeLong( a[i], out, i << 3 );
+		for (int i = 0; i < b.length; i++) Blake2b.Engine.LittleEndian.writeLong( b[i], out, (a.length + i) << 3 );
+		return out;
+	}
+
+	/** digest bytes as zero filled little-endian words */
+	private static long[] words (final byte[] digest) {
+		final byte[] padded = new byte [ (digest.length + 7) & ~7 ];
+		System.arraycopy( digest, 0, padded, 0, digest.length );
+		final long[] w = new long [ padded.length >>> 3 ];
+		for (int i = 0; i < w.length; i++) w[i] = Blake2b.Engine.LittleEndian.readLong( padded, i << 3 );
+		return w;
+	}
+
+	private static Blake2b newDigest (final Blake2b.Param p) {
+		return p.hasKey() ? Blake2b.Mac.newInstance(p) : Blake2b.Digest.newInstance(p);
+	}
+
+	private static final Blake2b.Param[] params = {
+		new Blake2b.Param(),
+		new Blake2b.Param().setDigestLength(20),
+		new Blake2b.Param().setKey("merkle".getBytes()).setDigestLength(32),
+		new Blake2b.Param().setDepth(2).setFanout(2).setNodeOffset(1).setInnerLength(32).setDigestLength(32),
+	};
+
+	@Test public void testCombine () {
+		logit(this, "testCombine");
+		// Merkle inner node: two 32 byte children
+		final long[] left = newWords(4);
+		final long[] right = newWords(4);
+		final long[] out = new long [ 4 ];
+		Blake2b.Words.combine( left, right, out );
+		assertEquals( out, words(Blake2b.Digest.newInstance(32).digest(bytes(left, right))), eqFail("combine") );
+
+		for (final Blake2b.Param p : params) {
+			for (final int[] lens : new int[][] { {0, 0}, {4, 4}, {8, 8}, {1, 0}, {0, 3}, {7, 2} }) {
+				final long[] l = newWords(lens[0]);
+				final long[] r = newWords(lens[1]);
+				final long[] pout = new long [ (p.getDigestLength() + 7) >>> 3 ];
+				Blake2b.Words.combine( l, r, p, pout );
+				assertEquals( pout, words(newDigest(p).digest(bytes(l, r))), eqFail("combine (" + lens[0] + "," + lens[1] + ")") );
+			}
+		}
+	}
+
+	@Test public void testIterate () {
+		logit(this, "testIterate");
+		final long[] seed = newWords(8);
+		for (final Blake2b.Param p : params) {
+			for (final int n : new int[] { 1, 2, 17 }) {
+				final int outlen = p.getDigestLength();
+				byte[] link = bytes(seed, new long[0]);
+				for (int i = 0; i < n; i++) link = newDigest(p).digest(link);
+
+				final long[] out = new long [ (outlen + 7) >>> 3 ];
+				Blake2b.Words.iterate( seed, n, p, out );
+				assertEquals( out, words(link), eqFail("iterate (" + n + ")") );
+			}
+		}
+		// default params, with a digest length of out.length words
+		final long[] out = new long [ 8 ];
+		Blake2b.Words.iterate( seed, 3, out );
+		final long[] expected = new long [ 8 ];
+		Blake2b.Words.iterate( seed, 3, new Blake2b.Param(), expected );
+		assertEquals( out, expected, eqFail("iterate") );
+	}
+
+	@Test public void testLongMessage () {
+		logit(this, "testLongMessage");
+		try {
+			Blake2b.Words.combine( newWords(9), newWords(8), new long [ 4 ] );
+			assert false : "combine of more than 16 words";
+		} catch (IllegalArgumentException expected) { }
+		try {
+			Blake2b.Words.iterate( newWords(17), 0, new long [ 4 ] );
+			assert false : "iterate of a seed of more than 16 words";
+		} catch (IllegalArgumentException expected) { }
+	}
+}